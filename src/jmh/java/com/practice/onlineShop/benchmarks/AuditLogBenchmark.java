@@ -0,0 +1,57 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.logging.AuditLog;
+import com.practice.onlineShop.logging.AuditProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.practice.onlineShop.logging.AuditEventType.ADD_ORDER;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class AuditLogBenchmark {
+    private static final Integer USER_ID = 2;
+    private static final Map<Integer, Integer> PRODUCTS_IDS_TO_QUANTITY = Collections.singletonMap(1, 3);
+
+    private AuditLog auditLog;
+    private PrintStream standardOutput;
+
+    @Setup
+    public void setUp() throws IOException {
+        AuditProperties auditProperties = new AuditProperties();
+        auditProperties.setFile("target/benchmark-audit.log");
+        // blocking, so the numbers are what the writer sustains and not how fast events can be dropped
+        auditProperties.setOverflowPolicy(AuditProperties.OverflowPolicy.BLOCK);
+        auditLog = new AuditLog(auditProperties);
+        auditLog.start();
+
+        standardOutput = new PrintStream(new FileOutputStream("target/benchmark-stdout.log"), true);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        auditLog.stop();
+        standardOutput.close();
+    }
+
+    @Benchmark
+    public void auditLog() {
+        auditLog.log(ADD_ORDER, USER_ID, PRODUCTS_IDS_TO_QUANTITY);
+    }
+
+    @Benchmark
+    public void systemOut() {
+        standardOutput.println("In LogAspect, before adding an order for user " + USER_ID + ": " + PRODUCTS_IDS_TO_QUANTITY);
+    }
+}
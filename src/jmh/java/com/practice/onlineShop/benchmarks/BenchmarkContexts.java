@@ -0,0 +1,31 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.OnlineShopApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(OnlineShopApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                        "online-shop.audit.file=target/benchmark-audit.log",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    static void insertCatalog(ConfigurableApplicationContext context, int products, int stock) {
+        context.getBean(JdbcTemplate.class).update("INSERT INTO product (id, code, currency, description, price, stock, valid, version) " +
+                "SELECT X, 'benchmark-' || X, 'EUR', 'benchmark product ' || X, 10.5, ?, TRUE, 0 " +
+                "FROM SYSTEM_RANGE(1, ?)", stock, products);
+    }
+}
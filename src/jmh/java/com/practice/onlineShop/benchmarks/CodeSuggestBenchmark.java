@@ -0,0 +1,43 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.search.CodeDictionary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CodeSuggestBenchmark {
+    @Param({"100000", "1000000"})
+    private int products;
+
+    // what an editor has typed after one, two and six keystrokes
+    @Param({"s", "sk", "sku-12"})
+    private String prefix;
+
+    @Param({"10"})
+    private int limit;
+
+    private CodeDictionary codeDictionary;
+
+    @Setup
+    public void setUp() {
+        List<String> codes = new ArrayList<>(products);
+        for (int productId = 1; productId <= products; productId++) {
+            codes.add("SKU-" + productId);
+        }
+        codeDictionary = new CodeDictionary();
+        codeDictionary.addAll(codes);
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return codeDictionary.suggest(prefix, limit);
+    }
+}
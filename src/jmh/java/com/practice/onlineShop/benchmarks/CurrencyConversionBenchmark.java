@@ -0,0 +1,71 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.currency.RateTable;
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.mappers.ProductMapper;
+import com.practice.onlineShop.vos.ProductVO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a listing of products to VOs with and without converting their prices, the difference is what a
+ * {@code ?currency=} costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyConversionBenchmark {
+    private static final Currencies[] CURRENCIES = Currencies.values();
+
+    @Param({"10000"})
+    private int products;
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private Product[] catalog;
+    private RateTable rateTable;
+
+    @Setup
+    public void setUp() {
+        catalog = new Product[products];
+        for (int i = 0; i < products; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setCode("code-" + i);
+            product.setDescription("a description");
+            product.setPrice(1 + i % 1000 + 0.99);
+            product.setCurrency(CURRENCIES[i % CURRENCIES.length]);
+            product.setStock(10);
+            product.setValid(true);
+            catalog[i] = product;
+        }
+        Map<Currencies, BigDecimal> rates = new EnumMap<>(Currencies.class);
+        rates.put(Currencies.EUR, BigDecimal.ONE);
+        rates.put(Currencies.USD, new BigDecimal("1.0850"));
+        rates.put(Currencies.RON, new BigDecimal("4.9750"));
+        rateTable = new RateTable(rates);
+    }
+
+    @Benchmark
+    public void toVO(Blackhole blackhole) {
+        for (Product product : catalog) {
+            blackhole.consume(productMapper.toVO(product));
+        }
+    }
+
+    @Benchmark
+    public void toConvertedVO(Blackhole blackhole) {
+        for (Product product : catalog) {
+            ProductVO productVO = productMapper.toVO(product);
+            blackhole.consume(productMapper.toConvertedVO(productVO, Currencies.USD, rateTable));
+        }
+    }
+}
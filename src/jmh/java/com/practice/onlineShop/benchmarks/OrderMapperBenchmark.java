@@ -0,0 +1,67 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.entities.Orders;
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.mappers.OrderMapper;
+import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.repositories.UserRepository;
+import com.practice.onlineShop.vos.OrderVO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int orderLines;
+
+    private OrderMapper orderMapper;
+    private OrderVO orderVO;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(2);
+        List<Product> products = new ArrayList<>();
+        Map<Integer, Integer> productsIdsToQuantity = new HashMap<>();
+        for (int i = 1; i <= orderLines; i++) {
+            Product product = new Product();
+            product.setId(i);
+            products.add(product);
+            productsIdsToQuantity.put(i, 1);
+        }
+
+        // stub-only mocks do not record invocations, so they stay flat over millions of calls
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user));
+        ProductRepository productRepository = mock(ProductRepository.class, withSettings().stubOnly());
+        when(productRepository.findAllById(any())).thenReturn(products);
+        orderMapper = new OrderMapper(userRepository, productRepository);
+
+        orderVO = new OrderVO();
+        orderVO.setUserId(2);
+        orderVO.setProductsIdsToQuantity(productsIdsToQuantity);
+    }
+
+    @Benchmark
+    public Orders toEntity() throws Exception {
+        return orderMapper.toEntity(orderVO);
+    }
+}
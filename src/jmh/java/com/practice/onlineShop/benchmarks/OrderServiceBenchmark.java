@@ -0,0 +1,76 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.services.OrderService;
+import com.practice.onlineShop.services.StockLedger;
+import com.practice.onlineShop.vos.OrderResultVO;
+import com.practice.onlineShop.vos.OrderVO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+    private static final int CLIENT_ID = 2;
+    private static final int STOCK = 1_000_000_000;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1", "10", "50"})
+    private int orderLines;
+
+    @Param({"false", "true"})
+    private boolean stockLedger;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderVO orderVO;
+    private List<OrderVO> orderVOs;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("online-shop.stock-ledger.enabled=" + stockLedger);
+        BenchmarkContexts.insertCatalog(context, orderLines, STOCK);
+        // the ledger loaded its counters at startup, before the catalog existed
+        context.getBeanProvider(StockLedger.class).ifAvailable(ledger -> {
+            for (long productId = 1; productId <= orderLines; productId++) {
+                ledger.stockSet(productId, STOCK);
+            }
+        });
+        orderService = context.getBean(OrderService.class);
+
+        Map<Integer, Integer> productsIdsToQuantity = new HashMap<>();
+        for (int productId = 1; productId <= orderLines; productId++) {
+            productsIdsToQuantity.put(productId, 1);
+        }
+        orderVO = new OrderVO();
+        orderVO.setUserId(CLIENT_ID);
+        orderVO.setProductsIdsToQuantity(productsIdsToQuantity);
+        orderVOs = new ArrayList<>(Collections.nCopies(BATCH_SIZE, orderVO));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void addOrder() throws Exception {
+        orderService.addOrder(orderVO);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<OrderResultVO> addOrders() {
+        return orderService.addOrders(orderVOs);
+    }
+}
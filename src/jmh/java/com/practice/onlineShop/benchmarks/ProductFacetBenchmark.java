@@ -0,0 +1,57 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.search.FacetIndex;
+import com.practice.onlineShop.vos.ProductFilterVO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductFacetBenchmark {
+    private static final Currencies[] CURRENCIES = Currencies.values();
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    @Param({"20"})
+    private int limit;
+
+    private FacetIndex facetIndex;
+    private ProductFilterVO unfiltered;
+    private ProductFilterVO filtered;
+
+    @Setup
+    public void setUp() {
+        facetIndex = new FacetIndex(10, 50, 100, 200, 500);
+        Random random = new Random(42);
+        for (int productId = 1; productId <= products; productId++) {
+            facetIndex.index(productId, random.nextInt(100_000) / 100.0, CURRENCIES[random.nextInt(CURRENCIES.length)],
+                    random.nextInt(10) == 0 ? 0 : random.nextInt(100), random.nextInt(20) != 0);
+        }
+        unfiltered = new ProductFilterVO();
+        filtered = new ProductFilterVO();
+        filtered.setCurrency(Collections.singletonList(Currencies.EUR));
+        filtered.setMinPrice(50.0);
+        filtered.setMaxPrice(200.0);
+        filtered.setInStock(true);
+        filtered.setValid(true);
+    }
+
+    @Benchmark
+    public FacetIndex.Result unfiltered() {
+        return facetIndex.filter(unfiltered, limit);
+    }
+
+    @Benchmark
+    public FacetIndex.Result filtered() {
+        return facetIndex.filter(filtered, limit);
+    }
+}
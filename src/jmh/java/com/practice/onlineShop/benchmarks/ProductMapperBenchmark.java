@@ -0,0 +1,45 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.mappers.ProductMapper;
+import com.practice.onlineShop.vos.ProductVO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.practice.onlineShop.enums.Currencies.EUR;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+    private final ProductMapper productMapper = new ProductMapper();
+    private Product product;
+    private ProductVO productVO;
+
+    @Setup
+    public void setUp() {
+        product = new Product();
+        product.setId(42);
+        product.setCode("benchmark-42");
+        product.setDescription("benchmark product 42");
+        product.setPrice(10.5);
+        product.setCurrency(EUR);
+        product.setStock(100);
+        product.setValid(true);
+        productVO = productMapper.toVO(product);
+    }
+
+    @Benchmark
+    public ProductVO toVO() {
+        return productMapper.toVO(product);
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return productMapper.toEntity(productVO);
+    }
+}
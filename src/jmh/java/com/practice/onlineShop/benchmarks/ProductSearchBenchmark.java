@@ -0,0 +1,49 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.search.InvertedIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+    private static final String[] COLOURS = {"red", "blue", "green", "black", "white", "grey", "navy", "olive"};
+    private static final String[] MATERIALS = {"cotton", "wool", "leather", "linen", "denim", "silk", "suede", "nylon"};
+    private static final String[] ITEMS = {"shirt", "boots", "socks", "jacket", "dress", "hat", "scarf", "gloves",
+            "trousers", "sweater", "sandals", "backpack", "belt", "coat", "skirt", "hoodie"};
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    // a code, a selective phrase, a typed prefix, two common words
+    @Param({"sku-123456", "navy suede hood", "backp", "red cotton"})
+    private String query;
+
+    @Param({"20"})
+    private int limit;
+
+    private InvertedIndex invertedIndex;
+
+    @Setup
+    public void setUp() {
+        invertedIndex = new InvertedIndex();
+        Random random = new Random(42);
+        for (int productId = 1; productId <= products; productId++) {
+            invertedIndex.index(productId, "SKU-" + productId, COLOURS[random.nextInt(COLOURS.length)] + " "
+                    + MATERIALS[random.nextInt(MATERIALS.length)] + " " + ITEMS[random.nextInt(ITEMS.length)]
+                    + ", model " + random.nextInt(10_000));
+        }
+    }
+
+    @Benchmark
+    public List<String> search() {
+        return invertedIndex.search(query, limit);
+    }
+}
@@ -0,0 +1,50 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.services.ProductService;
+import com.practice.onlineShop.vos.ProductsPageVO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int catalogSize;
+
+    @Param({"50"})
+    private int limit;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private long after;
+    }
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        BenchmarkContexts.insertCatalog(context, catalogSize, 100);
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductsPageVO getProducts(Cursor cursor) {
+        ProductsPageVO productsPage = productService.getProducts(cursor.after, limit, null);
+        cursor.after = productsPage.getNextCursor() == null ? 0 : productsPage.getNextCursor();
+        return productsPage;
+    }
+}
@@ -0,0 +1,69 @@
+package com.practice.onlineShop.benchmarks;
+
+import com.practice.onlineShop.annotations.CustomerId;
+import com.practice.onlineShop.annotations.RequiresRole;
+import com.practice.onlineShop.aspects.PermissionRegistry;
+import com.practice.onlineShop.aspects.SecurityAspect;
+import com.practice.onlineShop.caches.RolesCache;
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.practice.onlineShop.enums.Roles.ADMIN;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityAspectBenchmark {
+    private static final Long ADMIN_ID = 1L;
+
+    public static class ProtectedService {
+        @RequiresRole(ADMIN)
+        public int addStock(String productCode, @CustomerId Long customerId) {
+            return productCode.length();
+        }
+    }
+
+    private ProtectedService protectedService;
+    private ProtectedService advisedService;
+
+    @Setup
+    public void setUp() {
+        User admin = new User();
+        admin.setId(ADMIN_ID);
+        admin.setRoles(Collections.singletonList(ADMIN));
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findWithRolesById(ADMIN_ID)).thenReturn(Optional.of(admin));
+
+        protectedService = new ProtectedService();
+        PermissionRegistry permissionRegistry = new PermissionRegistry();
+        permissionRegistry.postProcessBeforeInitialization(protectedService, "protectedService");
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(protectedService);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new SecurityAspect(new RolesCache(userRepository, Duration.ofMinutes(5), 1000), permissionRegistry));
+        advisedService = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public int withoutAdvice() {
+        return protectedService.addStock("benchmark-1", ADMIN_ID);
+    }
+
+    @Benchmark
+    public int withSecurityAdvice() {
+        return advisedService.addStock("benchmark-1", ADMIN_ID);
+    }
+}
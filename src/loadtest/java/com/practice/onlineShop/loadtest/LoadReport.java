@@ -0,0 +1,95 @@
+package com.practice.onlineShop.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class LoadReport {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Operation, Recorder> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, Recorder> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LongAdder fallbacks = new LongAdder();
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            serviceTimes.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long responseTimeNanos, long serviceTimeNanos, boolean success) {
+        responseTimes.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(responseTimeNanos));
+        serviceTimes.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(serviceTimeNanos));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void fallback() {
+        fallbacks.increment();
+    }
+
+    void write(LoadTestSettings settings, long measuredNanos) throws IOException {
+        Map<Operation, Histogram> responseHistograms = intervalHistograms(responseTimes);
+        Map<Operation, Histogram> serviceHistograms = intervalHistograms(serviceTimes);
+        double measuredSeconds = measuredNanos / 1e9;
+
+        if (settings.getReport().getParent() != null) {
+            Files.createDirectories(settings.getReport().getParent());
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(settings.getReport()), false, "UTF-8")) {
+            out.printf("Open-model run: %d req/s target, %ds measured after %ds warmup, %d client threads, %d products, mix %s%n",
+                    settings.getRate(), settings.getDuration().getSeconds(), settings.getWarmup().getSeconds(),
+                    settings.getThreads(), settings.getProducts(), settings.getMix());
+            out.printf("Order requests replaced by get-product because no suitable order was left: %d%n%n", fallbacks.sum());
+            out.println("Response time, measured from the intended start (corrected for coordinated omission)");
+            writeTable(out, responseHistograms, measuredSeconds);
+            out.println();
+            out.println("Service time, measured from the actual send");
+            writeTable(out, serviceHistograms, measuredSeconds);
+        }
+    }
+
+    private void writeTable(PrintStream out, Map<Operation, Histogram> histograms, double measuredSeconds) {
+        out.printf("%-15s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "error %", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            long operationErrors = errors.get(entry.getKey()).sum();
+            writeRow(out, entry.getKey().getKey(), entry.getValue(), operationErrors, measuredSeconds);
+            total.add(entry.getValue());
+            totalErrors += operationErrors;
+        }
+        writeRow(out, "total", total, totalErrors, measuredSeconds);
+    }
+
+    private void writeRow(PrintStream out, String name, Histogram histogram, long errorCount, double measuredSeconds) {
+        long requests = histogram.getTotalCount();
+        out.printf("%-15s %10d %8d %8.2f %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name, requests, errorCount, requests == 0 ? 0 : 100.0 * errorCount / requests, requests / measuredSeconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static Map<Operation, Histogram> intervalHistograms(Map<Operation, Recorder> recorders) {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        return histograms;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.practice.onlineShop.loadtest;
+
+import com.practice.onlineShop.OnlineShopApplication;
+import com.practice.onlineShop.services.OrderService;
+import com.practice.onlineShop.services.ProductService;
+import com.practice.onlineShop.vos.OrderResultVO;
+import com.practice.onlineShop.vos.OrderVO;
+import com.practice.onlineShop.vos.ProductVO;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.practice.onlineShop.enums.Currencies.EUR;
+
+/**
+ * Starts the shop on a random port with a fresh H2 database, seeds a catalog and open orders, and replays
+ * a weighted request mix at a fixed arrival rate. Settings are read from {@code loadtest.*} system
+ * properties, anything else (e.g. {@code online-shop.stock-ledger.enabled}) goes to the application.
+ */
+public class LoadTest {
+    private static final int STOCK = 1_000_000_000;
+    private static final int SEED_BATCH_SIZE = 500;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OnlineShopApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID(),
+                        "online-shop.audit.file=target/loadtest-audit.log",
+                        "logging.level.root=WARN")
+                .run(args)) {
+            long[] productIds = addCatalog(context, settings.getProducts());
+            OrderPool orderPool = placeOrders(context, settings, productIds);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            try (ShopClient shopClient = new ShopClient("http://localhost:" + port, settings.getThreads())) {
+                new OpenLoadGenerator(settings, shopClient, orderPool, productIds).run();
+            }
+            System.out.println(new String(Files.readAllBytes(settings.getReport()), "UTF-8"));
+        }
+    }
+
+    /**
+     * Adds the catalog through ProductService, like an admin would. The ids come from the product sequence, and
+     * the stock ledger and the search, facet and suggestion indexes all learn about every product.
+     *
+     * @return the id of every product, the product coded {@code loadtest-n} at index n - 1
+     */
+    private static long[] addCatalog(ConfigurableApplicationContext context, int products) {
+        ProductService productService = context.getBean(ProductService.class);
+        for (int i = 1; i <= products; i++) {
+            ProductVO productVO = new ProductVO();
+            productVO.setCode(ShopClient.PRODUCT_CODE_PREFIX + i);
+            productVO.setCurrency(EUR);
+            productVO.setDescription("load test product " + i);
+            productVO.setPrice(10.5);
+            productVO.setStock(STOCK);
+            productVO.setValid(true);
+            productService.addProduct(productVO, ShopClient.ADMIN_ID);
+        }
+
+        long[] productIds = new long[products];
+        context.getBean(JdbcTemplate.class).query("SELECT id, code FROM product WHERE code LIKE ?", resultSet -> {
+            String code = resultSet.getString("code");
+            productIds[Integer.parseInt(code.substring(ShopClient.PRODUCT_CODE_PREFIX.length())) - 1] = resultSet.getLong("id");
+        }, ShopClient.PRODUCT_CODE_PREFIX + "%");
+        return productIds;
+    }
+
+    // a third of the seeded orders is delivered up front, so returns have something to work on from the start
+    private static OrderPool placeOrders(ConfigurableApplicationContext context, LoadTestSettings settings, long[] productIds) throws Exception {
+        OrderService orderService = context.getBean(OrderService.class);
+        OrderPool orderPool = new OrderPool();
+        Random random = new Random(7);
+        int placed = 0;
+        while (placed < settings.getOrders()) {
+            List<OrderVO> orderVOs = new ArrayList<>();
+            for (int i = 0; i < SEED_BATCH_SIZE && placed + i < settings.getOrders(); i++) {
+                OrderVO orderVO = new OrderVO();
+                orderVO.setUserId((int) ShopClient.CLIENT_ID);
+                orderVO.setProductsIdsToQuantity(Collections.singletonMap((int) productIds[random.nextInt(productIds.length)], 1));
+                orderVOs.add(orderVO);
+            }
+            for (OrderResultVO result : orderService.addOrders(orderVOs)) {
+                if (result.getOrderId() == null) {
+                    throw new IllegalStateException("Could not seed order: " + result.getError());
+                }
+                if (placed++ % 3 == 0) {
+                    orderService.deliver(result.getOrderId().intValue(), ShopClient.EXPEDITOR_ID);
+                    orderPool.addDelivered(result.getOrderId());
+                } else {
+                    orderPool.addNew(result.getOrderId());
+                }
+            }
+        }
+        return orderPool;
+    }
+}
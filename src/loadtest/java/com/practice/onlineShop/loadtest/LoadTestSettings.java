@@ -0,0 +1,71 @@
+package com.practice.onlineShop.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+final class LoadTestSettings {
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int threads;
+    private final int products;
+    private final int orders;
+    private final Map<Operation, Integer> mix;
+    private final Path report;
+
+    private LoadTestSettings(int rate, Duration warmup, Duration duration, int threads, int products, Integer orders,
+                             Map<Operation, Integer> mix, Path report) {
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.threads = threads;
+        this.products = products;
+        this.mix = mix;
+        this.report = report;
+        this.orders = orders != null ? orders : ordersNeeded();
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.rate", 200),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10L)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60L)),
+                Integer.getInteger("loadtest.threads", 64),
+                Integer.getInteger("loadtest.products", 10_000),
+                Integer.getInteger("loadtest.orders"),
+                parseMix(System.getProperty("loadtest.mix")),
+                Paths.get(System.getProperty("loadtest.report", "target/loadtest-report.txt")));
+    }
+
+    int getTotalWeight() {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // enough pre-placed orders that deliver and cancel never run dry, with some headroom
+    private int ordersNeeded() {
+        long requests = rate * (warmup.getSeconds() + duration.getSeconds());
+        int weight = mix.getOrDefault(Operation.DELIVER_ORDER, 0) + mix.getOrDefault(Operation.CANCEL_ORDER, 0);
+        return (int) Math.min(Integer.MAX_VALUE, requests * weight * 3 / (2L * getTotalWeight()) + 100);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        if (mix == null || mix.trim().isEmpty()) {
+            for (Operation operation : Operation.values()) {
+                weights.put(operation, operation.getDefaultWeight());
+            }
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim().split("=");
+            weights.put(Operation.fromKey(keyAndWeight[0].trim()), Integer.parseInt(keyAndWeight[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,124 @@
+package com.practice.onlineShop.loadtest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests on a fixed schedule, whether or not earlier ones have completed. Latency is taken from
+ * the time a request was due, so a stalled server shows up in the tail instead of just lowering the rate.
+ */
+final class OpenLoadGenerator {
+    private final LoadTestSettings settings;
+    private final ShopClient shopClient;
+    private final OrderPool orderPool;
+    private final long[] productIds;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Random random = new Random(42);
+
+    OpenLoadGenerator(LoadTestSettings settings, ShopClient shopClient, OrderPool orderPool, long[] productIds) {
+        this.settings = settings;
+        this.shopClient = shopClient;
+        this.orderPool = orderPool;
+        this.productIds = productIds;
+        this.operations = new Operation[settings.getMix().size()];
+        this.cumulativeWeights = new int[operations.length];
+        int i = 0;
+        int weight = 0;
+        for (Map.Entry<Operation, Integer> entry : settings.getMix().entrySet()) {
+            weight += entry.getValue();
+            operations[i] = entry.getKey();
+            cumulativeWeights[i++] = weight;
+        }
+    }
+
+    void run() throws IOException, InterruptedException {
+        LoadReport report = new LoadReport();
+        // unbounded, so a slow server makes requests queue (and count as late) instead of being dropped
+        ExecutorService workers = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(),
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        double periodNanos = TimeUnit.SECONDS.toNanos(1) / (double) settings.getRate();
+        long start = System.nanoTime();
+        long measureStart = start + settings.getWarmup().toNanos();
+        long end = measureStart + settings.getDuration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * periodNanos);
+            if (intendedStart >= end) {
+                break;
+            }
+            for (long delay = intendedStart - System.nanoTime(); delay > 0; delay = intendedStart - System.nanoTime()) {
+                LockSupport.parkNanos(delay);
+            }
+            boolean measured = intendedStart >= measureStart;
+            Operation operation = nextOperation();
+            long target;
+            if (operation == Operation.DELIVER_ORDER || operation == Operation.CANCEL_ORDER || operation == Operation.RETURN_ORDER) {
+                Long orderId = orderPool.take(operation);
+                if (orderId == null) {
+                    if (measured) {
+                        report.fallback();
+                    }
+                    operation = Operation.GET_PRODUCT;
+                    target = nextProduct();
+                } else {
+                    target = orderId;
+                }
+            } else if (operation == Operation.LIST_PRODUCTS) {
+                // a page starts after the cursor, so it starts at a random product
+                target = productIds[random.nextInt(productIds.length)] - 1;
+            } else if (operation == Operation.ADD_ORDER) {
+                target = productIds[random.nextInt(productIds.length)];
+            } else {
+                target = nextProduct();
+            }
+            Operation scheduledOperation = operation;
+            long scheduledTarget = target;
+            workers.execute(() -> execute(scheduledOperation, scheduledTarget, intendedStart, measured, report));
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+        report.write(settings, end - measureStart);
+    }
+
+    private void execute(Operation operation, long target, long intendedStart, boolean measured, LoadReport report) {
+        long sendStart = System.nanoTime();
+        boolean success;
+        try {
+            success = shopClient.send(operation, target) < 400;
+        } catch (IOException e) {
+            success = false;
+        }
+        if (success) {
+            orderPool.completed(operation, target);
+        }
+        long completed = System.nanoTime();
+        if (measured) {
+            report.record(operation, completed - intendedStart, completed - sendStart, success);
+        }
+    }
+
+    private Operation nextOperation() {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    // the number in a product code, not its id
+    private long nextProduct() {
+        return random.nextInt(settings.getProducts()) + 1;
+    }
+}
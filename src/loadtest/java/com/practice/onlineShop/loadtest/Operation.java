@@ -0,0 +1,35 @@
+package com.practice.onlineShop.loadtest;
+
+enum Operation {
+    LIST_PRODUCTS("list-products", 30),
+    GET_PRODUCT("get-product", 40),
+    ADD_ORDER("add-order", 15),
+    DELIVER_ORDER("deliver-order", 6),
+    CANCEL_ORDER("cancel-order", 4),
+    RETURN_ORDER("return-order", 5);
+
+    private final String key;
+    private final int defaultWeight;
+
+    Operation(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+}
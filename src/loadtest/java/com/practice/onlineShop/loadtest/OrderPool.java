@@ -0,0 +1,30 @@
+package com.practice.onlineShop.loadtest;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Orders the PATCH endpoints can still act on: new ones for deliver/cancel, delivered ones for return.
+ */
+final class OrderPool {
+    private final Queue<Long> newOrders = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> deliveredOrders = new ConcurrentLinkedQueue<>();
+
+    void addNew(long orderId) {
+        newOrders.add(orderId);
+    }
+
+    void addDelivered(long orderId) {
+        deliveredOrders.add(orderId);
+    }
+
+    Long take(Operation operation) {
+        return operation == Operation.RETURN_ORDER ? deliveredOrders.poll() : newOrders.poll();
+    }
+
+    void completed(Operation operation, long orderId) {
+        if (operation == Operation.DELIVER_ORDER) {
+            deliveredOrders.add(orderId);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.practice.onlineShop.loadtest;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPatch;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+final class ShopClient implements Closeable {
+    static final long ADMIN_ID = 1;
+    static final long CLIENT_ID = 2;
+    static final long EXPEDITOR_ID = 3;
+    static final String PRODUCT_CODE_PREFIX = "loadtest-";
+
+    private final String baseUrl;
+    private final CloseableHttpClient httpClient;
+
+    ShopClient(String baseUrl, int connections) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClients.custom()
+                .setMaxConnTotal(connections)
+                .setMaxConnPerRoute(connections)
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    int send(Operation operation, long target) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(toRequest(operation, target))) {
+            EntityUtils.consume(response.getEntity());
+            return response.getStatusLine().getStatusCode();
+        }
+    }
+
+    private HttpUriRequest toRequest(Operation operation, long target) {
+        switch (operation) {
+            case LIST_PRODUCTS:
+                return new HttpGet(baseUrl + "/product?after=" + target);
+            case GET_PRODUCT:
+                return new HttpGet(baseUrl + "/product/" + PRODUCT_CODE_PREFIX + target);
+            case ADD_ORDER:
+                HttpPost post = new HttpPost(baseUrl + "/order");
+                post.setEntity(new StringEntity("{\"userId\":" + CLIENT_ID + ",\"productsIdsToQuantity\":{\"" + target + "\":1}}",
+                        ContentType.APPLICATION_JSON));
+                return post;
+            case DELIVER_ORDER:
+                return new HttpPatch(baseUrl + "/order/" + target + "/" + EXPEDITOR_ID);
+            case CANCEL_ORDER:
+                return new HttpPatch(baseUrl + "/order/cancel/" + target + "/" + CLIENT_ID);
+            case RETURN_ORDER:
+                return new HttpPatch(baseUrl + "/order/return/" + target + "/" + CLIENT_ID);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,14 @@
+package com.practice.onlineShop.annotations;
+
+import com.practice.onlineShop.enums.Roles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresRole {
+    Roles[] value();
+}
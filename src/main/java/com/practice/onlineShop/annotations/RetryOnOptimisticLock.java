@@ -0,0 +1,14 @@
+package com.practice.onlineShop.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+    int maxAttempts() default 4;
+
+    long backoffMillis() default 10;
+}
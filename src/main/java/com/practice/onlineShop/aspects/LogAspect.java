@@ -1,14 +1,22 @@
 package com.practice.onlineShop.aspects;
 
+import com.practice.onlineShop.logging.AuditLog;
+import com.practice.onlineShop.vos.OrderVO;
+import com.practice.onlineShop.vos.ProductVO;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
+import java.util.List;
+
+import static com.practice.onlineShop.logging.AuditEventType.*;
 
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class LogAspect {
+    private final AuditLog auditLog;
 
     @Pointcut("execution(* com.practice.onlineShop.controllers.ProductController.addProduct(..))")
     public void addProductPointcut(){}
@@ -19,10 +27,16 @@ public class LogAspect {
     @Pointcut("execution(* com.practice.onlineShop.controllers.ProductController.updateProduct(..))")
     public void updateProductPointcut(){}
 
+    @Pointcut("execution(* com.practice.onlineShop.controllers.ProductController.deleteProduct(..))")
+    public void deleteProductPointcut(){}
+
     @Pointcut("execution(* com.practice.onlineShop.controllers.OrderController.addOrder(..))")
     public void addOrderPointcut(){}
 
-    @Pointcut("execution(* com.practice.onlineShop.controllers.OrderController.deliverOrder(..))")
+    @Pointcut("execution(* com.practice.onlineShop.controllers.OrderController.addOrders(..))")
+    public void addOrdersPointcut(){}
+
+    @Pointcut("execution(* com.practice.onlineShop.controllers.OrderController.deliver(..))")
     public void deliverOrderPointcut(){}
 
     @Pointcut("execution(* com.practice.onlineShop.controllers.OrderController.cancelOrder(..))")
@@ -34,56 +48,57 @@ public class LogAspect {
 
     @Before("com.practice.onlineShop.aspects.LogAspect.addProductPointcut()")
     public void beforeAddingAProduct(JoinPoint joinPoint) {
-        System.out.println("In before aspect at " + new Date());
-        System.out.println("ProductVO:" + joinPoint.getArgs()[0]);
-        System.out.println("The user had id:" + joinPoint.getArgs()[1]);
+        auditLog.log(ADD_PRODUCT, ((ProductVO) joinPoint.getArgs()[0]).getCode(), joinPoint.getArgs()[1]);
     }
 
-        @Before("com.practice.onlineShop.aspects.LogAspect.addStockPointcut()")
-        public void beforeAddingStock(JoinPoint joinPoint){
-            System.out.println("In before aspect at " + new Date() + " before adding stock");
-            System.out.println("Product code:" + joinPoint.getArgs()[0]);
-            System.out.println("quantity:" + joinPoint.getArgs()[1]);
-            System.out.println("The user had id:" + joinPoint.getArgs()[2]);
+    @Before("com.practice.onlineShop.aspects.LogAspect.addStockPointcut()")
+    public void beforeAddingStock(JoinPoint joinPoint) {
+        auditLog.log(ADD_STOCK, joinPoint.getArgs()[0], joinPoint.getArgs()[1], joinPoint.getArgs()[2]);
     }
 
     @Before("com.practice.onlineShop.aspects.LogAspect.updateProductPointcut()")
-    public void beforeUpdate(JoinPoint joinPoint){
-        System.out.println("In before aspect at " + new Date() + "for doing an update");
-        System.out.println("ProductVO:" + joinPoint.getArgs()[0]);
-        System.out.println("The user had id:" + joinPoint.getArgs()[1]);
+    public void beforeUpdate(JoinPoint joinPoint) {
+        auditLog.log(UPDATE_PRODUCT, ((ProductVO) joinPoint.getArgs()[0]).getCode(), joinPoint.getArgs()[1]);
+    }
+
+    @Before("com.practice.onlineShop.aspects.LogAspect.deleteProductPointcut()")
+    public void beforeDelete(JoinPoint joinPoint) {
+        auditLog.log(DELETE_PRODUCT, joinPoint.getArgs()[0], joinPoint.getArgs()[1]);
     }
 
     @Before("com.practice.onlineShop.aspects.LogAspect.deliverOrderPointcut()")
-    public void beforeDeliver(JoinPoint joinPoint){
-        System.out.println("In before aspect at " + new Date() + "for doing a deliver");
-        System.out.println("OrderId:" + joinPoint.getArgs()[0]);
-        System.out.println("The user had id:" + joinPoint.getArgs()[1]);
+    public void beforeDeliver(JoinPoint joinPoint) {
+        auditLog.log(DELIVER_ORDER, joinPoint.getArgs()[0], joinPoint.getArgs()[1]);
     }
 
     @Before("com.practice.onlineShop.aspects.LogAspect.cancelOrderPointcut()")
     public void beforeCancel(JoinPoint joinPoint) {
-        System.out.println("In before aspect at " + new Date() + "for doing a cancelation");
-        System.out.println("OrderId:" + joinPoint.getArgs()[0]);
-        System.out.println("The user had id:" + joinPoint.getArgs()[1]);
+        auditLog.log(CANCEL_ORDER, joinPoint.getArgs()[0], joinPoint.getArgs()[1]);
     }
 
     @Before("com.practice.onlineShop.aspects.LogAspect.returnOrderPointcut()")
     public void beforeReturningOrder(JoinPoint joinPoint) {
-        System.out.println("In before aspect at " + new Date() + "for doing a return");
-        System.out.println("Order Id:" + joinPoint.getArgs()[0]);
-        System.out.println("The user had id:" + joinPoint.getArgs()[1]);
+        auditLog.log(RETURN_ORDER, joinPoint.getArgs()[0], joinPoint.getArgs()[1]);
     }
 
     @After("com.practice.onlineShop.aspects.LogAspect.addProductPointcut()")
-    public void afterAddingAProduct(JoinPoint joinPoint){
-        System.out.println("In after aspect at " + new Date());
+    public void afterAddingAProduct(JoinPoint joinPoint) {
+        auditLog.log(PRODUCT_ADDED, ((ProductVO) joinPoint.getArgs()[0]).getCode());
     }
 
     @Before("com.practice.onlineShop.aspects.LogAspect.addOrderPointcut()")
     public void beforeAddingAnOrder(JoinPoint joinPoint) {
-        System.out.println("In before aspect at " + new Date());
-        System.out.println("OrderVO:" + joinPoint.getArgs()[0]);
+        OrderVO orderVO = (OrderVO) joinPoint.getArgs()[0];
+        auditLog.log(ADD_ORDER, orderVO.getUserId(), orderVO.getProductsIdsToQuantity());
+    }
 
+    @Before("com.practice.onlineShop.aspects.LogAspect.addOrdersPointcut()")
+    public void beforeAddingOrders(JoinPoint joinPoint) {
+        for (Object argument : (List<?>) joinPoint.getArgs()[0]) {
+            if (argument != null) {
+                OrderVO orderVO = (OrderVO) argument;
+                auditLog.log(ADD_ORDER, orderVO.getUserId(), orderVO.getProductsIdsToQuantity());
+            }
+        }
     }
 }
@@ -0,0 +1,122 @@
+package com.practice.onlineShop.aspects;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsAspect {
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> percentileHistogramLayers;
+    private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    // a histogram is a few dozen buckets per timer, only the layers listed here get one
+    public MetricsAspect(MeterRegistry meterRegistry,
+                         @Value("${online-shop.metrics.percentile-histogram-layers:controller}") String[] percentileHistogramLayers) {
+        this.meterRegistry = meterRegistry;
+        this.percentileHistogramLayers = new HashSet<>(Arrays.asList(percentileHistogramLayers));
+    }
+
+    @Pointcut("within(com.practice.onlineShop.controllers..*)")
+    public void controllerPointcut(){}
+
+    @Pointcut("within(com.practice.onlineShop.services..*)")
+    public void servicePointcut(){}
+
+    @Pointcut("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public void repositoryPointcut(){}
+
+    @Around("com.practice.onlineShop.aspects.MetricsAspect.controllerPointcut()")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "controller");
+    }
+
+    @Around("com.practice.onlineShop.aspects.MetricsAspect.servicePointcut()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service");
+    }
+
+    @Around("com.practice.onlineShop.aspects.MetricsAspect.repositoryPointcut()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "repository");
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        long start = System.nanoTime();
+        Class<? extends Throwable> exception = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            exception = throwable.getClass();
+            // the controllers are the outermost layer, counting there counts every failed request exactly once
+            if ("controller".equals(layer)) {
+                meterRegistry.counter("online-shop.exceptions", "exception", exception.getSimpleName(),
+                        "class", getTypeName(joinPoint), "method", joinPoint.getSignature().getName()).increment();
+            }
+            throw throwable;
+        } finally {
+            getTimer(joinPoint, layer, exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // the method alone is not enough, repository methods are declared once in CrudRepository for every repository
+    private Timer getTimer(ProceedingJoinPoint joinPoint, String layer, Class<? extends Throwable> exception) {
+        TimerKey timerKey = new TimerKey(joinPoint.getThis().getClass(), ((MethodSignature) joinPoint.getSignature()).getMethod(),
+                layer, exception);
+        return timers.computeIfAbsent(timerKey, key -> Timer.builder("online-shop.calls")
+                .tag("layer", layer)
+                .tag("class", getTypeName(joinPoint))
+                .tag("method", key.method.getName())
+                .tag("exception", exception == null ? NO_EXCEPTION : exception.getSimpleName())
+                .publishPercentileHistogram(percentileHistogramLayers.contains(layer))
+                .register(meterRegistry));
+    }
+
+    private String getTypeName(ProceedingJoinPoint joinPoint) {
+        return typeNames.computeIfAbsent(joinPoint.getThis().getClass(), MetricsAspect::toTypeName);
+    }
+
+    // repositories are JDK proxies, their name comes from the repository interface and not from SimpleJpaRepository
+    private static String toTypeName(Class<?> proxyClass) {
+        for (Class<?> proxiedInterface : proxyClass.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(proxiedInterface) && proxiedInterface.getName().startsWith("com.practice.onlineShop.")) {
+                return proxiedInterface.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(proxyClass).getSimpleName();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class TimerKey {
+        private final Class<?> type;
+        private final Method method;
+        private final String layer;
+        private final Class<? extends Throwable> exception;
+    }
+}
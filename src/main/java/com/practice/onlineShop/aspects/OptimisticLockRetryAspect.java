@@ -0,0 +1,82 @@
+package com.practice.onlineShop.aspects;
+
+import com.practice.onlineShop.annotations.RetryOnOptimisticLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class OptimisticLockRetryAspect {
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(retryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retryOnOptimisticLock) throws Throwable {
+        // a conflict inside an outer transaction has already marked it rollback-only, only the outermost call can retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException exception) {
+                String entity = getConflictingEntity(exception);
+                meterRegistry.counter("optimistic.lock.conflicts", "method", method, "entity", entity).increment();
+                log.debug("Optimistic lock conflict in {} on {} {}, attempt {}", method, entity, getConflictingId(exception), attempt);
+                if (attempt >= retryOnOptimisticLock.maxAttempts()) {
+                    throw exception;
+                }
+                meterRegistry.counter("optimistic.lock.retries", "method", method).increment();
+                backOff(retryOnOptimisticLock.backoffMillis(), attempt, exception);
+            }
+        }
+    }
+
+    private void backOff(long backoffMillis, int attempt, RuntimeException conflict) {
+        long maxDelay = backoffMillis << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private String getConflictingEntity(RuntimeException exception) {
+        if (exception instanceof ObjectOptimisticLockingFailureException) {
+            String className = ((ObjectOptimisticLockingFailureException) exception).getPersistentClassName();
+            if (className != null) {
+                return className.substring(className.lastIndexOf('.') + 1);
+            }
+        }
+        if (exception instanceof OptimisticLockException && ((OptimisticLockException) exception).getEntity() != null) {
+            return ((OptimisticLockException) exception).getEntity().getClass().getSimpleName();
+        }
+        return "unknown";
+    }
+
+    private String getConflictingId(RuntimeException exception) {
+        if (exception instanceof ObjectOptimisticLockingFailureException
+                && ((ObjectOptimisticLockingFailureException) exception).getIdentifier() != null) {
+            return ((ObjectOptimisticLockingFailureException) exception).getIdentifier().toString();
+        }
+        return "unknown";
+    }
+}
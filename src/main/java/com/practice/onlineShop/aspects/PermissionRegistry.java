@@ -0,0 +1,59 @@
+package com.practice.onlineShop.aspects;
+
+import com.practice.onlineShop.annotations.CustomerId;
+import com.practice.onlineShop.annotations.RequiresRole;
+import com.practice.onlineShop.enums.Roles;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class PermissionRegistry implements BeanPostProcessor {
+    private final Map<Method, Permission> permissions = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(bean),
+                method -> permissions.put(method, compile(method)),
+                method -> method.isAnnotationPresent(RequiresRole.class));
+        return bean;
+    }
+
+    // every protected bean method is compiled at startup, the compiling branch only serves methods of unprocessed beans
+    public Permission getPermission(Method method) {
+        return permissions.computeIfAbsent(method, this::compile);
+    }
+
+    private Permission compile(Method method) {
+        RequiresRole requiresRole = method.getAnnotation(RequiresRole.class);
+        if (requiresRole == null) {
+            throw new IllegalStateException(method + " is not annotated with @RequiresRole");
+        }
+
+        Annotation[][] parametersAnnotations = method.getParameterAnnotations();
+        for (int index = 0; index < parametersAnnotations.length; index++) {
+            for (Annotation annotation : parametersAnnotations[index]) {
+                if (annotation instanceof CustomerId) {
+                    return new Permission(Roles.maskOf(Arrays.asList(requiresRole.value())), index);
+                }
+            }
+        }
+        throw new IllegalStateException(method + " has no parameter annotated with @CustomerId");
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Permission {
+        private final int allowedRolesMask;
+        private final int customerIdIndex;
+    }
+}
@@ -1,222 +1,47 @@
 package com.practice.onlineShop.aspects;
 
-import com.practice.onlineShop.entities.User;
-import com.practice.onlineShop.enums.Roles;
+import com.practice.onlineShop.caches.RolesCache;
 import com.practice.onlineShop.exceptions.InvalidCustomerIdException;
 import com.practice.onlineShop.exceptions.InvalidOperationException;
-import com.practice.onlineShop.repositories.UserRepository;
 import com.practice.onlineShop.vos.OrderVO;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
-import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
-import java.util.Optional;
-
-import static com.practice.onlineShop.enums.Roles.*;
+import java.util.OptionalInt;
 
 @Aspect
 @Component
 @RequiredArgsConstructor
 public class SecurityAspect {
-    private final UserRepository userRepository;
-
-    @Pointcut("execution(* com.practice.onlineShop.services.ProductService.addProduct(..))")
-    public void addProduct() {
-    }
-
-    @Pointcut("execution(* com.practice.onlineShop.services.ProductService.updateProduct(..))")
-    public void updateProduct() {
-    }
-
-    @Pointcut("execution(* com.practice.onlineShop.services.ProductService.deleteProduct(..))")
-    public void deleteProduct() {
-    }
-
-    @Pointcut("execution(* com.practice.onlineShop.services.OrderService.addOrder(..))")
-    public void addOrderPointcut() {
-    }
-
-    @Pointcut("execution(* com.practice.onlineShop.services.OrderService.addStock(..))")
-    public void addStockPointcut() {
-    }
-
-    @Pointcut("execution(* com.practice.onlineShop.services.OrderService.deliverOrder(..))")
-    public void deliverPointcut() {
-    }
-
-    @Pointcut("execution(* com.practice.onlineShop.services.OrderService.cancelOrder(..))")
-    public void cancelOrderPointcut() {
-    }
-
-    @Pointcut("execution(* com.practice.onlineShop.services.OrderService.returnOrder(..))")
-    public void returnOrderPointcut() {
-    }
-
-    @Before("com.practice.onlineShop.aspects.SecurityAspect.addProduct()")
-    public void checkSecurityBeforeAddingProduct(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
-        Long customerId = (Long) joinPoint.getArgs()[1];
-        Optional<User> userOptional = userRepository.findById(customerId);
-
-        if (!userOptional.isPresent()) {
-            throw new InvalidCustomerIdException();
-        }
-        User user = userOptional.get();
+    private final RolesCache rolesCache;
+    private final PermissionRegistry permissionRegistry;
 
-        if (userIsNotAllowedToAddProduct(user.getRoles())) {
-            throw new InvalidOperationException();
-        }
-        System.out.println(customerId);
-    }
+    @Before("@annotation(com.practice.onlineShop.annotations.RequiresRole)")
+    public void checkSecurity(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
+        PermissionRegistry.Permission permission = permissionRegistry.getPermission(((MethodSignature) joinPoint.getSignature()).getMethod());
+        Long customerId = toCustomerId(joinPoint.getArgs()[permission.getCustomerIdIndex()]);
 
-    @Before("com.practice.onlineShop.aspects.SecurityAspect.updateProduct()")
-    public void checkSecurityBeforeUpdatingProduct(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
-        Long customerId = (Long) joinPoint.getArgs()[1];
-        Optional<User> userOptional = userRepository.findById(customerId);
-
-        if (!userOptional.isPresent()) {
+        OptionalInt rolesMask = rolesCache.getRolesMask(customerId);
+        if (!rolesMask.isPresent()) {
             throw new InvalidCustomerIdException();
         }
-        User user = userOptional.get();
 
-        if (userIsNotAllowedToUpdateProduct(user.getRoles())) {
+        if ((rolesMask.getAsInt() & permission.getAllowedRolesMask()) == 0) {
             throw new InvalidOperationException();
         }
-        System.out.println(customerId);
     }
 
-//    @Before("com.practice.onlineShop.aspects.SecurityAspect.addStock()")
-//    public void checkSecurityBeforeAddingStock(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
-//        Long customerId = (Long) joinPoint.getArgs()[2];
-//        Optional<User> userOptional = userRepository.findById(customerId);
-//
-//        if (!userOptional.isPresent()) {
-//            throw new InvalidCustomerIdException();
-//        }
-//        User user = userOptional.get();
-//
-//        if (userIsNotAllowedToAddStock(user.getRoles())) {
-//            throw new InvalidOperationException();
-//        }
-//        System.out.println(customerId);
-//    }
-
-
-    @Before("com.practice.onlineShop.aspects.SecurityAspect.deleteProduct()")
-    public void checkSecurityBeforeDeletingAProduct(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
-        Long customerId = (Long) joinPoint.getArgs()[1];
-        Optional<User> userOptional = userRepository.findById(customerId);
-
-        if (!userOptional.isPresent()) {
-            throw new InvalidCustomerIdException();
-        }
-        User user = userOptional.get();
-
-        if (userIsNotAllowedToDeleteProduct(user.getRoles())) {
-            throw new InvalidOperationException();
+    private Long toCustomerId(Object customerIdArgument) throws InvalidCustomerIdException {
+        if (customerIdArgument instanceof Number) {
+            return ((Number) customerIdArgument).longValue();
         }
-        System.out.println(customerId);
-    }
-
-    @Before("com.practice.onlineShop.aspects.SecurityAspect.addOrderPointcut()")
-    public void checkSecurityBeforeAddingAnOrder(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
-        OrderVO orderVO = (OrderVO) joinPoint.getArgs()[0];
-
-        if (orderVO.getUserId() == null) {
-            throw new InvalidCustomerIdException();
-        }
-        Optional<User> userOptional = userRepository.findById(orderVO.getUserId().longValue());
-
-        if (!userOptional.isPresent()) {
-            throw new InvalidCustomerIdException();
-        }
-        User user = userOptional.get();
-
-        if (userIsNotAllowedToAddAnOrder(user.getRoles())) {
-            throw new InvalidOperationException();
+        if (customerIdArgument instanceof OrderVO && ((OrderVO) customerIdArgument).getUserId() != null) {
+            return ((OrderVO) customerIdArgument).getUserId().longValue();
         }
-    }
-
-    @Before("com.practice.onlineShop.aspects.SecurityAspect.deliverPointcut()")
-    public void checkSecurityBeforeDeliverOrder(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
-        Long customerId = (Long) joinPoint.getArgs()[1];
-        Optional<User> userOptional = userRepository.findById(customerId);
-
-        if (!userOptional.isPresent()) {
-            throw new InvalidCustomerIdException();
-        }
-        User user = userOptional.get();
-
-        if (userIsNotAllowedToDeliver(user.getRoles())) {
-            throw new InvalidOperationException();
-        }
-        System.out.println(customerId);
-    }
-
-    @Before("com.practice.onlineShop.aspects.SecurityAspect.cancelOrderPointcut()")
-    public void checkSecurityBeforeCancelingOrder(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
-        Long customerId = (Long) joinPoint.getArgs()[1];
-        Optional<User> userOptional = userRepository.findById(customerId);
-
-        if (!userOptional.isPresent()) {
-            throw new InvalidCustomerIdException();
-        }
-        User user = userOptional.get();
-
-        if (userIsNotAllowedToCancel(user.getRoles())) {
-            throw new InvalidOperationException();
-        }
-        System.out.println(customerId);
-    }
-
-    @Before("com.practice.onlineShop.aspects.SecurityAspect.returnOrderPointcut()")
-    public void checkSecurityBeforeReturningOrder(JoinPoint joinPoint) throws InvalidCustomerIdException, InvalidOperationException {
-        Long customerId = (Long) joinPoint.getArgs()[1];
-        Optional<User> userOptional = userRepository.findById(customerId);
-
-        if (!userOptional.isPresent()) {
-            throw new InvalidCustomerIdException();
-        }
-        User user = userOptional.get();
-
-        if (userIsNotAllowedToReturnOrder(user.getRoles())) {
-            throw new InvalidOperationException();
-        }
-
-    }
-
-    private boolean userIsNotAllowedToAddStock(Collection<Roles> roles) {
-        return !roles.contains(ADMIN);
-    }
-
-    private boolean userIsNotAllowedToReturnOrder(Collection<Roles> roles) {
-        return !roles.contains(CLIENT);
-    }
-
-    private boolean userIsNotAllowedToCancel(Collection<Roles> roles) {
-        return !roles.contains(CLIENT);
-    }
-
-    private boolean userIsNotAllowedToDeliver(Collection<Roles> roles) {
-        return !roles.contains(EXPEDITOR);
-    }
-
-    private boolean userIsNotAllowedToAddAnOrder(Collection<Roles> roles) {
-        return !roles.contains(CLIENT);
-    }
-
-    private boolean userIsNotAllowedToAddProduct(Collection<Roles> roles) {
-        return !roles.contains(ADMIN);
-    }
-
-    private boolean userIsNotAllowedToDeleteProduct(Collection<Roles> roles) {
-        return !roles.contains(ADMIN);
-    }
-
-    private boolean userIsNotAllowedToUpdateProduct(Collection<Roles> roles) {
-        return !roles.contains(ADMIN) && !roles.contains(EDITOR);
+        throw new InvalidCustomerIdException();
     }
 }
@@ -0,0 +1,106 @@
+package com.practice.onlineShop.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.practice.onlineShop.events.ProductChangedEvent;
+import com.practice.onlineShop.events.ProductStock;
+import com.practice.onlineShop.events.StockChangedEvent;
+import com.practice.onlineShop.mappers.ProductMapper;
+import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.vos.ProductVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ProductCache implements MeterBinder {
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final Cache<String, ProductVO> productsByCode;
+    private final Map<Long, String> codesById = new ConcurrentHashMap<>();
+
+    public ProductCache(ProductRepository productRepository, ProductMapper productMapper,
+                        @Value("${online-shop.cache.products.max-size:100000}") long maxSize,
+                        @Value("${online-shop.cache.products.ttl:10m}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.productsByCode = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(Runnable::run)
+                .removalListener((String code, ProductVO productVO, RemovalCause cause) -> forgetCode(code, productVO))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<ProductVO> getProduct(String productCode) {
+        if (productCode == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(productsByCode.get(productCode, this::loadProduct));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductVO productVO = event.getProduct();
+        // the schema allows products without a code, they can not be looked up by code and are never cached
+        if (productVO.getCode() == null) {
+            return;
+        }
+        if (event.isRemoved()) {
+            productsByCode.invalidate(productVO.getCode());
+            return;
+        }
+        codesById.put(productVO.getId(), productVO.getCode());
+        productsByCode.put(productVO.getCode(), productVO);
+    }
+
+    /**
+     * Hot products see a stock change with every order, a cached product takes the committed stock and version
+     * when it is exactly one version behind them. Any other product, or a change without them, is evicted.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        for (Long productId : event.getProductsIdsToDelta().keySet()) {
+            String productCode = codesById.get(productId);
+            if (productCode == null) {
+                continue;
+            }
+            ProductStock productStock = event.getProductsIdsToStock().get(productId);
+            productsByCode.asMap().computeIfPresent(productCode, (code, productVO) ->
+                    productStock != null && productVO.getVersion() == productStock.getVersion() - 1
+                            ? productMapper.withStock(productVO, productStock.getStock(), productStock.getVersion())
+                            : null);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, productsByCode, "products");
+    }
+
+    private ProductVO loadProduct(String productCode) {
+        return productRepository.findByCode(productCode)
+                .map(product -> {
+                    ProductVO productVO = productMapper.toVO(product);
+                    codesById.put(productVO.getId(), productCode);
+                    return productVO;
+                })
+                .orElse(null);
+    }
+
+    private void forgetCode(String productCode, ProductVO productVO) {
+        if (productVO != null && productsByCode.getIfPresent(productCode) == null) {
+            codesById.remove(productVO.getId(), productCode);
+        }
+    }
+}
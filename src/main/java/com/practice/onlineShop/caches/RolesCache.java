@@ -0,0 +1,54 @@
+package com.practice.onlineShop.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.practice.onlineShop.enums.Roles;
+import com.practice.onlineShop.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.OptionalInt;
+
+@Component
+public class RolesCache implements MeterBinder {
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> rolesMasksByUserId;
+
+    public RolesCache(UserRepository userRepository,
+                      @Value("${online-shop.cache.roles.ttl:5m}") Duration ttl,
+                      @Value("${online-shop.cache.roles.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.rolesMasksByUserId = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public OptionalInt getRolesMask(Long userId) {
+        if (userId == null) {
+            return OptionalInt.empty();
+        }
+        Integer rolesMask = rolesMasksByUserId.get(userId, this::loadRolesMask);
+        return rolesMask == null ? OptionalInt.empty() : OptionalInt.of(rolesMask);
+    }
+
+    public void invalidate(long userId) {
+        rolesMasksByUserId.invalidate(userId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, rolesMasksByUserId, "roles");
+    }
+
+    private Integer loadRolesMask(Long userId) {
+        return userRepository.findWithRolesById(userId)
+                .map(user -> Roles.maskOf(user.getRoles()))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,73 @@
+package com.practice.onlineShop.caches;
+
+import com.practice.onlineShop.entities.User;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+
+import static com.practice.onlineShop.utils.TransactionUtils.afterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class RolesCacheInvalidator implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRecreateEventListener, PostCollectionRemoveEventListener {
+    private final EntityManagerFactory entityManagerFactory;
+    private final RolesCache rolesCache;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        invalidate(event.getAffectedOwnerOrNull(), event.getAffectedOwnerIdOrNull());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        invalidate(event.getAffectedOwnerOrNull(), event.getAffectedOwnerIdOrNull());
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        invalidate(event.getAffectedOwnerOrNull(), event.getAffectedOwnerIdOrNull());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void invalidate(Object entity, Serializable id) {
+        if (entity instanceof User && id != null) {
+            long userId = (Long) id;
+            rolesCache.invalidate(userId);
+            afterCommit(() -> rolesCache.invalidate(userId));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.practice.onlineShop.controllers;
+
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.exceptions.InvalidRatesException;
+import com.practice.onlineShop.services.CurrencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/currency")
+@RequiredArgsConstructor
+public class CurrencyController {
+    private final CurrencyService currencyService;
+
+    @GetMapping("/rates")
+    public Map<Currencies, BigDecimal> getRates() {
+        return currencyService.getRateTable().getRates();
+    }
+
+    @PutMapping("/rates/{customerId}")
+    public void updateRates(@RequestBody Map<Currencies, BigDecimal> rates, @PathVariable Long customerId) throws InvalidRatesException {
+        currencyService.updateRates(rates, customerId);
+    }
+}
@@ -1,11 +1,17 @@
 package com.practice.onlineShop.controllers;
 
+import com.practice.onlineShop.enums.OrderStatus;
 import com.practice.onlineShop.exceptions.*;
 import com.practice.onlineShop.services.OrderService;
+import com.practice.onlineShop.vos.OrderDetailsVO;
+import com.practice.onlineShop.vos.OrderResultVO;
 import com.practice.onlineShop.vos.OrderVO;
+import com.practice.onlineShop.vos.OrdersPageVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 
 @RestController
 @RequestMapping("/order")
@@ -18,19 +24,36 @@ public class OrderController {
         orderService.addOrder(orderVO);
     }
 
+    @PostMapping("/batch")
+    public List<OrderResultVO> addOrders(@RequestBody List<OrderVO> orderVOs) {
+        return orderService.addOrders(orderVOs);
+    }
+
+    @GetMapping("/{orderId}/{customerId}")
+    public OrderDetailsVO getOrder(@PathVariable Long orderId, @PathVariable Long customerId) throws InvalidOrderIdException, InvalidCustomerIdException, InvalidOperationException {
+        return orderService.getOrder(orderId, customerId);
+    }
+
+    @GetMapping("/user/{userId}/{customerId}")
+    public OrdersPageVO getUserOrders(@PathVariable Long userId, @PathVariable Long customerId, @RequestParam(required = false) OrderStatus status,
+                                      @RequestParam(required = false) Long cursor, @RequestParam(required = false) Integer limit)
+            throws InvalidCustomerIdException, InvalidOperationException {
+        return orderService.getUserOrders(userId, customerId, status, cursor, limit);
+    }
+
     @PatchMapping("/{orderId}/{customerId}")
-    public void deliver(@PathVariable Integer orderId, @PathVariable Long customerId) throws InvalidOrderIdException, OrderCanceledException {
+    public void deliver(@PathVariable Integer orderId, @PathVariable Long customerId) throws InvalidOrderIdException, OrderCanceledException, OrderAlreadyDeliveredException {
         orderService.deliver(orderId, customerId);
 
     }
 
     @PatchMapping("/cancel/{orderId}/{customerId}")
-    public void cancelOrder(@PathVariable Integer orderId, @PathVariable Long customerId) throws OrderAlreadyDeliveredException, InvalidOrderIdException {
+    public void cancelOrder(@PathVariable Integer orderId, @PathVariable Long customerId) throws OrderAlreadyDeliveredException, InvalidOrderIdException, OrderCanceledException {
         orderService.cancelOrder(orderId, customerId);
     }
 
     @PatchMapping("/return/{orderId}/{customerId}")
-    public void returnOrder(@PathVariable Integer orderId, @PathVariable Long customerId) throws InvalidOrderIdException, OrderNotDeliveredYetException, OrderCanceledException {
+    public void returnOrder(@PathVariable Integer orderId, @PathVariable Long customerId) throws InvalidOrderIdException, OrderNotDeliveredYetException, OrderCanceledException, OrderAlreadyReturnedException {
         orderService.returnOrder(orderId, customerId);
     }
 
@@ -1,16 +1,33 @@
 package com.practice.onlineShop.controllers;
 
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.enums.ExportFormats;
+import com.practice.onlineShop.exceptions.InvalidExportFormatException;
 import com.practice.onlineShop.exceptions.InvalidProductCodeException;
+import com.practice.onlineShop.services.ProductExportService;
 import com.practice.onlineShop.services.ProductService;
+import com.practice.onlineShop.vos.FilteredProductsPageVO;
+import com.practice.onlineShop.vos.ProductFilterVO;
 import com.practice.onlineShop.vos.ProductVO;
+import com.practice.onlineShop.vos.ProductsPageVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 
 @RestController
 @RequestMapping("/product")
 @RequiredArgsConstructor
 public class ProductController {
     private final ProductService productService;
+    private final ProductExportService productExportService;
 
     @PostMapping("/{customerId}")
     public void addProduct(@RequestBody ProductVO productVO, @PathVariable Long customerId) {
@@ -19,13 +36,47 @@ public class ProductController {
     }
 
     @GetMapping("/{productCode}")
-    public ProductVO getProduct(@PathVariable String productCode) throws InvalidProductCodeException {
-        return productService.getProduct(productCode);
+    public ProductVO getProduct(@PathVariable String productCode, @RequestParam(required = false) Currencies currency,
+                                WebRequest webRequest) throws InvalidProductCodeException {
+        ProductVO productVO = productService.getProduct(productCode, currency);
+        if (webRequest.checkNotModified(productETag(productVO))) {
+            return null;
+        }
+        return productVO;
     }
 
     @GetMapping
-    public ProductVO[] getProducts() {
-        return productService.getProducts().toArray(new ProductVO[]{});
+    public ProductsPageVO getProducts(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit,
+                                      @RequestParam(required = false) Currencies currency, WebRequest webRequest) {
+        ProductsPageVO productsPage = productService.getProducts(after, limit, currency);
+        if (webRequest.checkNotModified(productsPageETag(productsPage))) {
+            return null;
+        }
+        return productsPage;
+    }
+
+    @GetMapping("/search")
+    public List<ProductVO> searchProducts(@RequestParam String q, @RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) Currencies currency) {
+        return productService.searchProducts(q, limit, currency);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestProductCodes(@RequestParam(defaultValue = "") String prefix, @RequestParam(required = false) Integer limit) {
+        return productService.suggestProductCodes(prefix, limit);
+    }
+
+    @GetMapping("/filter")
+    public FilteredProductsPageVO filterProducts(ProductFilterVO filter) {
+        return productService.filterProducts(filter);
+    }
+
+    @GetMapping("/export")
+    public void exportProducts(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws InvalidExportFormatException, IOException {
+        ExportFormats exportFormat = ExportFormats.fromParameter(format).orElseThrow(InvalidExportFormatException::new);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        productExportService.exportProducts(exportFormat, response.getOutputStream());
     }
 
     @PutMapping("/{customerId}")
@@ -42,4 +93,24 @@ public class ProductController {
     public void addStock(@PathVariable String productCode, @PathVariable Integer quantity, @PathVariable Long customerId) throws InvalidProductCodeException {
         productService.addStock(productCode, quantity, customerId);
     }
+
+    // converted responses also change with the rates, their tags carry the converted price instead of a rates version
+    private static String productETag(ProductVO productVO) {
+        if (productVO.getConvertedCurrency() == null) {
+            return productVO.getId() + "-" + productVO.getVersion();
+        }
+        return productVO.getId() + "-" + productVO.getVersion() + "-" + productVO.getConvertedCurrency() + "-" + productVO.getConvertedPrice();
+    }
+
+    private static String productsPageETag(ProductsPageVO productsPage) {
+        ByteBuffer idsAndVersions = ByteBuffer.allocate((productsPage.getProducts().size() * 4 + 1) * Long.BYTES);
+        for (ProductVO productVO : productsPage.getProducts()) {
+            idsAndVersions.putLong(productVO.getId()).putLong(productVO.getVersion());
+            if (productVO.getConvertedCurrency() != null) {
+                idsAndVersions.putLong(productVO.getConvertedCurrency().ordinal()).putLong(productVO.getConvertedPrice());
+            }
+        }
+        idsAndVersions.putLong(productsPage.getNextCursor() == null ? -1 : productsPage.getNextCursor());
+        return DigestUtils.md5DigestAsHex(Arrays.copyOf(idsAndVersions.array(), idsAndVersions.position()));
+    }
 }
@@ -0,0 +1,82 @@
+package com.practice.onlineShop.currency;
+
+import com.practice.onlineShop.enums.Currencies;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of exchange rates, given as units of every currency per unit of a common base. The
+ * cross rates between every pair are precomputed as fixed point longs that convert minor units directly,
+ * so a conversion is a multiplication and a division without allocating.
+ */
+public final class RateTable {
+    private static final Currencies[] CURRENCIES = Currencies.values();
+    private static final long RATE_SCALE = 1_000_000_000L;
+    private static final long HALF_RATE_SCALE = RATE_SCALE / 2;
+
+    private final Map<Currencies, BigDecimal> rates;
+    private final long[] scaledRates = new long[CURRENCIES.length * CURRENCIES.length];
+    // above these the fast path could overflow and the conversion falls back to BigDecimal
+    private final long[] maxFastAmounts = new long[scaledRates.length];
+
+    /**
+     * @throws IllegalArgumentException if a currency is missing or its rate is not positive
+     */
+    public RateTable(Map<Currencies, BigDecimal> rates) {
+        EnumMap<Currencies, BigDecimal> ratesCopy = new EnumMap<>(Currencies.class);
+        for (Currencies currency : CURRENCIES) {
+            BigDecimal rate = rates.get(currency);
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("Missing or non-positive rate for " + currency);
+            }
+            ratesCopy.put(currency, rate);
+        }
+        this.rates = Collections.unmodifiableMap(ratesCopy);
+
+        for (Currencies from : CURRENCIES) {
+            for (Currencies to : CURRENCIES) {
+                BigDecimal minorUnitsRate = ratesCopy.get(to)
+                        .divide(ratesCopy.get(from), MathContext.DECIMAL128)
+                        .scaleByPowerOfTen(to.getFractionDigits() - from.getFractionDigits());
+                long scaledRate = minorUnitsRate.multiply(BigDecimal.valueOf(RATE_SCALE))
+                        .setScale(0, RoundingMode.HALF_UP)
+                        .longValueExact();
+                int index = index(from, to);
+                scaledRates[index] = scaledRate;
+                maxFastAmounts[index] = scaledRate == 0 ? Long.MAX_VALUE : (Long.MAX_VALUE - HALF_RATE_SCALE) / scaledRate;
+            }
+        }
+    }
+
+    /**
+     * Converts an amount in minor units of one currency to minor units of another, rounding half away from zero.
+     */
+    public long convert(long amount, Currencies from, Currencies to) {
+        if (from == to) {
+            return amount;
+        }
+        int index = index(from, to);
+        long scaledRate = scaledRates[index];
+        if (amount > maxFastAmounts[index] || amount < -maxFastAmounts[index]) {
+            return BigDecimal.valueOf(amount)
+                    .multiply(BigDecimal.valueOf(scaledRate))
+                    .divide(BigDecimal.valueOf(RATE_SCALE), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+        long scaledAmount = amount * scaledRate;
+        return (scaledAmount + (scaledAmount < 0 ? -HALF_RATE_SCALE : HALF_RATE_SCALE)) / RATE_SCALE;
+    }
+
+    public Map<Currencies, BigDecimal> getRates() {
+        return rates;
+    }
+
+    private static int index(Currencies from, Currencies to) {
+        return from.ordinal() * CURRENCIES.length + to.ordinal();
+    }
+}
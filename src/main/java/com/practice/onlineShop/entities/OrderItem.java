@@ -1,23 +1,37 @@
 package com.practice.onlineShop.entities;
 
+import com.practice.onlineShop.enums.Currencies;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.EnumType.STRING;
 
 @Entity
+@Table(indexes = @Index(name = "order_item_order_id_idx", columnList = "order_id"))
 @Setter
 @Getter
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(generator = "order_item_sequence")
+    @GenericGenerator(name = "order_item_sequence", strategy = "com.practice.onlineShop.utils.PooledSequenceGenerator",
+            parameters = @Parameter(name = "sequence_name", value = "order_item_sequence"))
     private long id;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    private Orders order;
+    @ManyToOne(fetch = FetchType.LAZY)
     private Product product;
     private int quantity;
+    // copied from the product at checkout, in minor units of the currency
+    private long unitPrice;
+    @Enumerated(STRING)
+    private Currencies currency;
+    private long lineTotal;
 
 }
@@ -1,34 +1,46 @@
 package com.practice.onlineShop.entities;
 
 
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.enums.OrderStatus;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 
 import java.util.Collection;
 import java.util.List;
 
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.EnumType.STRING;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "orders_user_status_id_idx", columnList = "user_id, status, id"),
+        @Index(name = "orders_user_id_idx", columnList = "user_id, id")
+})
 @Getter
 @Setter
 public class Orders {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(generator = "orders_sequence")
+    @GenericGenerator(name = "orders_sequence", strategy = "com.practice.onlineShop.utils.PooledSequenceGenerator",
+            parameters = @Parameter(name = "sequence_name", value = "orders_sequence"))
     private long id;
 
-    @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn(name = "order_id")
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
     private List<OrderItem> orderItems;
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
-    private boolean isDelivered;
-    private boolean isReturned;
-    private boolean isCanceled;
+    @Enumerated(STRING)
+    private OrderStatus status = OrderStatus.NEW;
+    // the sum of the line totals converted at checkout, in minor units of the currency
+    private long total;
+    @Enumerated(STRING)
+    private Currencies currency;
 }
 
 
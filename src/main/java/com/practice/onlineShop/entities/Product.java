@@ -3,18 +3,21 @@ package com.practice.onlineShop.entities;
 import com.practice.onlineShop.enums.Currencies;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 
 import static javax.persistence.EnumType.*;
-import static javax.persistence.GenerationType.IDENTITY;
 
 @Entity
 @Setter
 @Getter
 public class Product {
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(generator = "product_sequence")
+    @GenericGenerator(name = "product_sequence", strategy = "com.practice.onlineShop.utils.PooledSequenceGenerator",
+            parameters = @Parameter(name = "sequence_name", value = "product_sequence"))
     private long id;
     @Column(unique = true)
     private String code;
@@ -24,4 +27,6 @@ public class Product {
     private Currencies currency;
     private int stock;
     private boolean valid;
+    @Version
+    private long version;
 }
@@ -0,0 +1,22 @@
+package com.practice.onlineShop.entities;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+
+import static javax.persistence.GenerationType.IDENTITY;
+
+@Entity
+@Setter
+@Getter
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private long id;
+    private long productId;
+    private int quantity;
+}
@@ -3,12 +3,13 @@ package com.practice.onlineShop.entities;
 import com.practice.onlineShop.enums.Roles;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import java.util.Collection;
 
 import static javax.persistence.EnumType.STRING;
-import static javax.persistence.GenerationType.IDENTITY;
 
 @Entity
 @Setter
@@ -16,7 +17,9 @@ import static javax.persistence.GenerationType.IDENTITY;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(generator = "user_sequence")
+    @GenericGenerator(name = "user_sequence", strategy = "com.practice.onlineShop.utils.PooledSequenceGenerator",
+            parameters = @Parameter(name = "sequence_name", value = "user_sequence"))
     private long id;
     private String username;
     private String password;
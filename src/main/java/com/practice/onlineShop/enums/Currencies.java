@@ -1,7 +1,23 @@
 package com.practice.onlineShop.enums;
 
 public enum Currencies {
-    EUR,
-    USD,
-    RON
+    EUR(2),
+    USD(2),
+    RON(2);
+
+    private final int fractionDigits;
+    private final long minorUnitsPerUnit;
+
+    Currencies(int fractionDigits) {
+        this.fractionDigits = fractionDigits;
+        this.minorUnitsPerUnit = (long) Math.pow(10, fractionDigits);
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    public long toMinorUnits(double amount) {
+        return Math.round(amount * minorUnitsPerUnit);
+    }
 }
@@ -0,0 +1,27 @@
+package com.practice.onlineShop.enums;
+
+import java.util.Optional;
+
+public enum ExportFormats {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    ExportFormats(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static Optional<ExportFormats> fromParameter(String format) {
+        for (ExportFormats exportFormat : values()) {
+            if (exportFormat.name().equalsIgnoreCase(format)) {
+                return Optional.of(exportFormat);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,22 @@
+package com.practice.onlineShop.enums;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public enum OrderStatus {
+    NEW,
+    DELIVERED(NEW),
+    CANCELED(NEW),
+    RETURNED(DELIVERED);
+
+    private final List<OrderStatus> predecessors;
+
+    OrderStatus(OrderStatus... predecessors) {
+        this.predecessors = Collections.unmodifiableList(Arrays.asList(predecessors));
+    }
+
+    public List<OrderStatus> getPredecessors() {
+        return predecessors;
+    }
+}
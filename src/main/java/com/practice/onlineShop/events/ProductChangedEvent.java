@@ -0,0 +1,12 @@
+package com.practice.onlineShop.events;
+
+import com.practice.onlineShop.vos.ProductVO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ProductChangedEvent {
+    private final ProductVO product;
+    private final boolean removed;
+}
@@ -0,0 +1,11 @@
+package com.practice.onlineShop.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ProductStock {
+    private final int stock;
+    private final long version;
+}
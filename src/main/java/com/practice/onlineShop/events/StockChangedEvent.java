@@ -0,0 +1,25 @@
+package com.practice.onlineShop.events;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The stock deltas of a transaction and, for the rows it updated, their stock and version after the update.
+ * Changes that do not reach the product rows right away, like the stock ledger's, only carry the deltas.
+ */
+@Getter
+public class StockChangedEvent {
+    private final Map<Long, Integer> productsIdsToDelta;
+    private final Map<Long, ProductStock> productsIdsToStock;
+
+    public StockChangedEvent(Map<Long, Integer> productsIdsToDelta) {
+        this(productsIdsToDelta, Collections.emptyMap());
+    }
+
+    public StockChangedEvent(Map<Long, Integer> productsIdsToDelta, Map<Long, ProductStock> productsIdsToStock) {
+        this.productsIdsToDelta = productsIdsToDelta;
+        this.productsIdsToStock = productsIdsToStock;
+    }
+}
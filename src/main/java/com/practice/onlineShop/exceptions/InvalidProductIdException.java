@@ -1,4 +1,21 @@
 package com.practice.onlineShop.exceptions;
 
+import java.util.Collection;
+import java.util.Collections;
+
 public class InvalidProductIdException extends Exception{
+    private final Collection<Long> productsIds;
+
+    public InvalidProductIdException() {
+        this(Collections.emptyList());
+    }
+
+    public InvalidProductIdException(Collection<Long> productsIds) {
+        super("Invalid products ids: " + productsIds);
+        this.productsIds = productsIds;
+    }
+
+    public Collection<Long> getProductsIds() {
+        return productsIds;
+    }
 }
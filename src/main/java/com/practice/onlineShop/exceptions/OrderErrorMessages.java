@@ -0,0 +1,48 @@
+package com.practice.onlineShop.exceptions;
+
+/**
+ * The messages a client gets for a rejected order, shared by OrderHandler and the results of a batch of orders.
+ */
+public final class OrderErrorMessages {
+
+    private OrderErrorMessages() {
+    }
+
+    public static String getMessage(Exception exception) {
+        if (exception instanceof InvalidProductsException) {
+            return "Comanda dumneavoastra nu contine niciun produs!";
+        }
+        if (exception instanceof InvalidCustomerIdException) {
+            return "Comanda dumneavoastra nu este asignata unui user valid!";
+        }
+        if (exception instanceof InvalidOperationException) {
+            return "Utilizatorul nu are permisiunea de a executa aceasta operatiune!";
+        }
+        if (exception instanceof InvalidProductIdException) {
+            InvalidProductIdException invalidProductIdException = (InvalidProductIdException) exception;
+            if (invalidProductIdException.getProductsIds().isEmpty()) {
+                return "Id-ul unui produs nu este valid in comanda curenta!";
+            }
+            return "Id-urile urmatoarelor produse nu sunt valide in comanda curenta: " + invalidProductIdException.getProductsIds();
+        }
+        if (exception instanceof NotEnoughStockException) {
+            return "Un produs nu a avut stock-ul necesar!";
+        }
+        if (exception instanceof InvalidOrderIdException) {
+            return "Id-ul comenzii nu este valid!";
+        }
+        if (exception instanceof OrderAlreadyDeliveredException) {
+            return "Comanda a fost deja expediata!";
+        }
+        if (exception instanceof OrderCanceledException) {
+            return "Comanda a fost anulata!";
+        }
+        if (exception instanceof OrderNotDeliveredYetException) {
+            return "Comanda nu poate fi returnata deoarece nu a fost livrata!";
+        }
+        if (exception instanceof OrderAlreadyReturnedException) {
+            return "Comanda a fost deja returnata!";
+        }
+        throw new IllegalArgumentException("No order message for " + exception.getClass().getName());
+    }
+}
@@ -0,0 +1,18 @@
+package com.practice.onlineShop.handlers;
+
+import com.practice.onlineShop.exceptions.InvalidRatesException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.ResponseEntity.status;
+
+@ControllerAdvice
+public class CurrencyHandler {
+
+    @ExceptionHandler(InvalidRatesException.class)
+    public ResponseEntity<String> handleInvalidRatesException() {
+        return status(BAD_REQUEST).body("Cursurile de schimb trimise sunt invalide!");
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import static com.practice.onlineShop.exceptions.OrderErrorMessages.getMessage;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.ResponseEntity.status;
 
@@ -12,42 +13,47 @@ import static org.springframework.http.ResponseEntity.status;
 public class OrderHandler {
 
     @ExceptionHandler(InvalidProductsException.class)
-    public ResponseEntity<String> handleInvalidProductsException() {
-        return status(BAD_REQUEST).body("Comanda dumneavoastra nu contine niciun produs!");
+    public ResponseEntity<String> handleInvalidProductsException(InvalidProductsException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
     }
 
     @ExceptionHandler(InvalidCustomerIdException.class)
-    public ResponseEntity<String> handleInvalidCustomerIdException() {
-        return status(BAD_REQUEST).body("Comanda dumneavoastra nu este asignata unui user valid!");
+    public ResponseEntity<String> handleInvalidCustomerIdException(InvalidCustomerIdException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
     }
 
     @ExceptionHandler(InvalidProductIdException.class)
-    public ResponseEntity<String> handleInvalidProductIdException() {
-        return status(BAD_REQUEST).body("Id-ul unui produs nu este valid in comanda curenta!");
+    public ResponseEntity<String> handleInvalidProductIdException(InvalidProductIdException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
     }
 
     @ExceptionHandler(NotEnoughStockException.class)
-    public ResponseEntity<String> handleNotEnoughStockException() {
-        return status(BAD_REQUEST).body("Un produs nu a avut stock-ul necesar!");
+    public ResponseEntity<String> handleNotEnoughStockException(NotEnoughStockException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
     }
 
     @ExceptionHandler(InvalidOrderIdException.class)
-    public ResponseEntity<String> handleInvalidOrderIdException() {
-        return status(BAD_REQUEST).body("Id-ul comenzii nu este valid!");
+    public ResponseEntity<String> handleInvalidOrderIdException(InvalidOrderIdException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
     }
 
     @ExceptionHandler(OrderAlreadyDeliveredException.class)
-    public ResponseEntity<String> handleOrderAlreadyDeliveredException() {
-        return status(BAD_REQUEST).body("Comanda a fost deja expediata!");
+    public ResponseEntity<String> handleOrderAlreadyDeliveredException(OrderAlreadyDeliveredException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
     }
 
     @ExceptionHandler(OrderCanceledException.class)
-    public ResponseEntity<String> handleOrderCanceledException() {
-        return status(BAD_REQUEST).body("Comanda a fost anulata!");
+    public ResponseEntity<String> handleOrderCanceledException(OrderCanceledException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
     }
 
     @ExceptionHandler(OrderNotDeliveredYetException.class)
-    public ResponseEntity<String> handleOrderNotDeliveredYetException() {
-        return status(BAD_REQUEST).body("Comanda nu poate fi returnata deoarece nu a fost livrata!");
+    public ResponseEntity<String> handleOrderNotDeliveredYetException(OrderNotDeliveredYetException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
+    }
+
+    @ExceptionHandler(OrderAlreadyReturnedException.class)
+    public ResponseEntity<String> handleOrderAlreadyReturnedException(OrderAlreadyReturnedException exception) {
+        return status(BAD_REQUEST).body(getMessage(exception));
     }
 }
@@ -1,6 +1,7 @@
 package com.practice.onlineShop.handlers;
 
 import com.practice.onlineShop.exceptions.InvalidCustomerIdException;
+import com.practice.onlineShop.exceptions.InvalidExportFormatException;
 import com.practice.onlineShop.exceptions.InvalidOperationException;
 import com.practice.onlineShop.exceptions.InvalidProductCodeException;
 import org.springframework.http.ResponseEntity;
@@ -17,4 +18,9 @@ public class ProductHandler {
     public ResponseEntity<String> handleInvalidProductCodeException() {
         return status(BAD_REQUEST).body("Codul produsului trimis este invalid!");
     }
+
+    @ExceptionHandler(InvalidExportFormatException.class)
+    public ResponseEntity<String> handleInvalidExportFormatException() {
+        return status(BAD_REQUEST).body("Formatul de export cerut nu este suportat!");
+    }
 }
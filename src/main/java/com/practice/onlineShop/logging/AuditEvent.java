@@ -0,0 +1,28 @@
+package com.practice.onlineShop.logging;
+
+import lombok.Getter;
+
+@Getter
+public class AuditEvent {
+    static final int MAX_ARGUMENTS = 3;
+
+    private long timestamp;
+    private AuditEventType type;
+    private final Object[] arguments = new Object[MAX_ARGUMENTS];
+    volatile long publishedSequence = -1;
+
+    void fill(long timestamp, AuditEventType type, Object argument0, Object argument1, Object argument2) {
+        this.timestamp = timestamp;
+        this.type = type;
+        arguments[0] = argument0;
+        arguments[1] = argument1;
+        arguments[2] = argument2;
+    }
+
+    void clear() {
+        type = null;
+        arguments[0] = null;
+        arguments[1] = null;
+        arguments[2] = null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.practice.onlineShop.logging;
+
+public enum AuditEventType {
+    ADD_PRODUCT("productCode", "customerId"),
+    PRODUCT_ADDED("productCode"),
+    ADD_STOCK("productCode", "quantity", "customerId"),
+    UPDATE_PRODUCT("productCode", "customerId"),
+    DELETE_PRODUCT("productCode", "customerId"),
+    ADD_ORDER("userId", "productsIdsToQuantity"),
+    DELIVER_ORDER("orderId", "customerId"),
+    CANCEL_ORDER("orderId", "customerId"),
+    RETURN_ORDER("orderId", "customerId");
+
+    private final String[] argumentNames;
+
+    AuditEventType(String... argumentNames) {
+        this.argumentNames = argumentNames;
+    }
+
+    public String[] getArgumentNames() {
+        return argumentNames;
+    }
+}
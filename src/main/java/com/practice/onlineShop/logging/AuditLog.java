@@ -0,0 +1,164 @@
+package com.practice.onlineShop.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.practice.onlineShop.logging.AuditProperties.OverflowPolicy.BLOCK;
+
+@Slf4j
+@Component
+public class AuditLog implements MeterBinder {
+    private final AuditProperties auditProperties;
+    private final AuditRingBuffer ringBuffer;
+    private final boolean[] enabledEvents = new boolean[AuditEventType.values().length];
+    private final boolean blockWhenFull;
+    private final StringBuilder line = new StringBuilder(256);
+    private final AtomicLong failedEvents = new AtomicLong();
+
+    private Writer writer;
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean writerParked;
+    private boolean failing;
+
+    public AuditLog(AuditProperties auditProperties) {
+        this.auditProperties = auditProperties;
+        this.ringBuffer = new AuditRingBuffer(auditProperties.getCapacity());
+        this.blockWhenFull = auditProperties.getOverflowPolicy() == BLOCK;
+        for (AuditEventType type : AuditEventType.values()) {
+            enabledEvents[type.ordinal()] = auditProperties.getEnabled().getOrDefault(type, true);
+        }
+    }
+
+    public boolean isEnabled(AuditEventType type) {
+        return enabledEvents[type.ordinal()];
+    }
+
+    public void log(AuditEventType type, Object argument0) {
+        log(type, argument0, null, null);
+    }
+
+    public void log(AuditEventType type, Object argument0, Object argument1) {
+        log(type, argument0, argument1, null);
+    }
+
+    public void log(AuditEventType type, Object argument0, Object argument1, Object argument2) {
+        if (!enabledEvents[type.ordinal()]) {
+            return;
+        }
+        if (blockWhenFull) {
+            ringBuffer.publish(type, argument0, argument1, argument2);
+        } else if (!ringBuffer.tryPublish(type, argument0, argument1, argument2)) {
+            return;
+        }
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path file = Paths.get(auditProperties.getFile());
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file.toFile(), true), StandardCharsets.UTF_8), 64 * 1024);
+        running = true;
+        writerThread = new Thread(this::writeEvents, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join();
+        writer.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("audit.events.dropped", ringBuffer, AuditRingBuffer::getDroppedEvents)
+                .description("Audit events dropped because the buffer was full")
+                .register(registry);
+        FunctionCounter.builder("audit.events.failed", failedEvents, AtomicLong::get)
+                .description("Audit events that could not be written to the audit file")
+                .register(registry);
+    }
+
+    private void writeEvents() {
+        while (running) {
+            if (writeBatch() == 0) {
+                parkUntilPublished();
+            }
+        }
+        int written;
+        do {
+            written = writeBatch();
+        } while (written > 0);
+    }
+
+    private int writeBatch() {
+        int written = ringBuffer.drain(this::write, auditProperties.getBatchSize());
+        if (written > 0) {
+            try {
+                writer.flush();
+                failing = false;
+            } catch (IOException e) {
+                writeFailed(written, e);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Producers only unpark the writer after they see the flag, and the flag is raised before the buffer is checked
+     * a last time, so an event published meanwhile is never left waiting.
+     */
+    private void parkUntilPublished() {
+        writerParked = true;
+        if (running && ringBuffer.isEmpty()) {
+            LockSupport.park(this);
+        }
+        writerParked = false;
+    }
+
+    // only the first failure in a row is logged, a full disk would otherwise log once per event
+    private void writeFailed(int events, IOException e) {
+        failedEvents.addAndGet(events);
+        if (!failing) {
+            failing = true;
+            log.error("Could not write to the audit file {}", auditProperties.getFile(), e);
+        }
+    }
+
+    private void write(AuditEvent event) {
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(event.getTimestamp())).append(" event=").append(event.getType());
+        String[] argumentNames = event.getType().getArgumentNames();
+        for (int i = 0; i < argumentNames.length; i++) {
+            line.append(' ').append(argumentNames[i]).append('=').append(event.getArguments()[i]);
+        }
+        line.append('\n');
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            writeFailed(1, e);
+        }
+    }
+}
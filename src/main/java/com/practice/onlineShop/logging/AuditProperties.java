@@ -0,0 +1,26 @@
+package com.practice.onlineShop.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "online-shop.audit")
+@Getter
+@Setter
+public class AuditProperties {
+    private String file = "logs/audit.log";
+    private int capacity = 8192;
+    private int batchSize = 512;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private Map<AuditEventType, Boolean> enabled = new EnumMap<>(AuditEventType.class);
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+}
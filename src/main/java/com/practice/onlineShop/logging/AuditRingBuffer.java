@@ -0,0 +1,89 @@
+package com.practice.onlineShop.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated events. Producers claim a slot with a CAS on
+ * the claim sequence, so publishing never takes a lock and never allocates.
+ */
+public class AuditRingBuffer {
+    private final AuditEvent[] slots;
+    private final int mask;
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile long consumedSequence;
+
+    public AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The audit buffer capacity must be a power of two: " + capacity);
+        }
+        slots = new AuditEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AuditEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    public boolean tryPublish(AuditEventType type, Object argument0, Object argument1, Object argument2) {
+        long sequence = claim();
+        if (sequence < 0) {
+            droppedEvents.incrementAndGet();
+            return false;
+        }
+        write(sequence, type, argument0, argument1, argument2);
+        return true;
+    }
+
+    public void publish(AuditEventType type, Object argument0, Object argument1, Object argument2) {
+        long sequence;
+        while ((sequence = claim()) < 0) {
+            LockSupport.parkNanos(1_000L);
+        }
+        write(sequence, type, argument0, argument1, argument2);
+    }
+
+    public int drain(Consumer<AuditEvent> consumer, int maxEvents) {
+        int drained = 0;
+        long sequence = consumedSequence;
+        while (drained < maxEvents) {
+            AuditEvent event = slots[(int) (sequence & mask)];
+            if (event.publishedSequence != sequence) {
+                break;
+            }
+            consumer.accept(event);
+            event.clear();
+            sequence++;
+            drained++;
+            consumedSequence = sequence;
+        }
+        return drained;
+    }
+
+    public boolean isEmpty() {
+        long sequence = consumedSequence;
+        return slots[(int) (sequence & mask)].publishedSequence != sequence;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    private long claim() {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+            if (sequence - consumedSequence >= slots.length) {
+                return -1;
+            }
+        } while (!claimSequence.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    private void write(long sequence, AuditEventType type, Object argument0, Object argument1, Object argument2) {
+        AuditEvent event = slots[(int) (sequence & mask)];
+        event.fill(System.currentTimeMillis(), type, argument0, argument1, argument2);
+        event.publishedSequence = sequence;
+    }
+}
@@ -7,8 +7,13 @@ import com.practice.onlineShop.entities.User;
 import com.practice.onlineShop.exceptions.InvalidCustomerIdException;
 import com.practice.onlineShop.exceptions.InvalidProductIdException;
 import com.practice.onlineShop.exceptions.InvalidProductsException;
+import com.practice.onlineShop.projections.OrderItemDetails;
+import com.practice.onlineShop.projections.OrderSummary;
 import com.practice.onlineShop.repositories.ProductRepository;
 import com.practice.onlineShop.repositories.UserRepository;
+import com.practice.onlineShop.vos.OrderDetailsVO;
+import com.practice.onlineShop.vos.OrderItemVO;
+import com.practice.onlineShop.vos.OrderSummaryVO;
 import com.practice.onlineShop.vos.OrderVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -27,47 +32,152 @@ public class OrderMapper {
         }
         validateOrder(orderVO);
 
-        Orders order = new Orders();
-
         Optional<User> userOptional = userRepository.findById(orderVO.getUserId().longValue());
 
         if (!userOptional.isPresent()) {
             throw new InvalidCustomerIdException();
         }
 
-        order.setUser(userOptional.get());
+        Set<Long> requestedIds = getProductsIds(orderVO);
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(requestedIds)) {
+            productsById.put(product.getId(), product);
+        }
+        throwExceptionIfProductsAreMissing(requestedIds, productsById);
 
-        Map<Integer, Integer> productsIdsToQuantityMap = orderVO.getProductsIdsToQuantity();
-        List<OrderItem> orderItemsList = new ArrayList<>();
+        return toEntity(orderVO, userOptional.get(), productsById);
+    }
 
-        Set<Integer> productsIds = productsIdsToQuantityMap.keySet();
+    public Orders toEntity(OrderVO orderVO, Map<Long, User> usersById, Map<Long, Product> productsById) throws InvalidCustomerIdException, InvalidProductsException, InvalidProductIdException {
+        if (orderVO == null) {
+            throw new InvalidProductsException();
+        }
+        validateOrder(orderVO);
 
-        for (Integer productId : productsIds) {
-            OrderItem orderItem = new OrderItem();
+        User user = usersById.get(orderVO.getUserId().longValue());
+        if (user == null) {
+            throw new InvalidCustomerIdException();
+        }
+        throwExceptionIfProductsAreMissing(getProductsIds(orderVO), productsById);
+
+        return toEntity(orderVO, user, productsById);
+    }
+
+    public OrderSummaryVO toSummaryVO(OrderSummary orderSummary) {
+        OrderSummaryVO orderSummaryVO = new OrderSummaryVO();
+        orderSummaryVO.setId(orderSummary.getId());
+        orderSummaryVO.setUserId(orderSummary.getUserId());
+        orderSummaryVO.setStatus(orderSummary.getStatus());
+        orderSummaryVO.setTotal(orderSummary.getTotal());
+        orderSummaryVO.setCurrency(orderSummary.getCurrency());
+        return orderSummaryVO;
+    }
+
+    public OrderDetailsVO toDetailsVO(OrderSummary orderSummary, List<OrderItemDetails> itemsDetails) {
+        OrderDetailsVO orderDetailsVO = new OrderDetailsVO();
+        orderDetailsVO.setId(orderSummary.getId());
+        orderDetailsVO.setUserId(orderSummary.getUserId());
+        orderDetailsVO.setStatus(orderSummary.getStatus());
+        orderDetailsVO.setTotal(orderSummary.getTotal());
+        orderDetailsVO.setCurrency(orderSummary.getCurrency());
+
+        List<OrderItemVO> items = new ArrayList<>(itemsDetails.size());
+        for (OrderItemDetails itemDetails : itemsDetails) {
+            OrderItemVO orderItemVO = new OrderItemVO();
+            orderItemVO.setProductId(itemDetails.getProductId());
+            orderItemVO.setProductCode(itemDetails.getProductCode());
+            orderItemVO.setQuantity(itemDetails.getQuantity());
+            orderItemVO.setUnitPrice(itemDetails.getUnitPrice());
+            orderItemVO.setCurrency(itemDetails.getCurrency());
+            orderItemVO.setLineTotal(itemDetails.getLineTotal());
+            items.add(orderItemVO);
+        }
+        orderDetailsVO.setItems(items);
+        return orderDetailsVO;
+    }
+
+    public Map<Long, User> getUsersById(List<OrderVO> orderVOs) {
+        Set<Long> usersIds = new HashSet<>();
+        for (OrderVO orderVO : orderVOs) {
+            if (orderVO != null && orderVO.getUserId() != null) {
+                usersIds.add(orderVO.getUserId().longValue());
+            }
+        }
 
-            Optional<Product> productOptional = productRepository.findById(productId.longValue());
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : userRepository.findWithRolesByIdIn(usersIds)) {
+            usersById.put(user.getId(), user);
+        }
+        return usersById;
+    }
 
-            if (!productOptional.isPresent()) {
-                throw new InvalidProductIdException();
+    public Map<Long, Product> getProductsById(List<OrderVO> orderVOs) {
+        Set<Long> productsIds = new HashSet<>();
+        for (OrderVO orderVO : orderVOs) {
+            if (orderVO != null && orderVO.getProductsIdsToQuantity() != null) {
+                productsIds.addAll(getProductsIds(orderVO));
             }
-            orderItem.setProduct(productOptional.get());
+        }
+
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(productsIds)) {
+            productsById.put(product.getId(), product);
+        }
+        return productsById;
+    }
 
-            Integer productQuantity = productsIdsToQuantityMap.get(productId);
-            orderItem.setQuantity(productQuantity);
+    private Orders toEntity(OrderVO orderVO, User user, Map<Long, Product> productsById) {
+        Orders order = new Orders();
+        order.setUser(user);
+
+        List<OrderItem> orderItemsList = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> productIdToQuantity : orderVO.getProductsIdsToQuantity().entrySet()) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProduct(productsById.get(productIdToQuantity.getKey().longValue()));
+            orderItem.setQuantity(productIdToQuantity.getValue());
             orderItemsList.add(orderItem);
         }
         order.setOrderItems(orderItemsList);
         return order;
     }
 
+    private Set<Long> getProductsIds(OrderVO orderVO) {
+        Set<Long> productsIds = new HashSet<>();
+        for (Integer productId : orderVO.getProductsIdsToQuantity().keySet()) {
+            productsIds.add(productId.longValue());
+        }
+        return productsIds;
+    }
+
+    private void throwExceptionIfProductsAreMissing(Set<Long> requestedIds, Map<Long, Product> productsById) throws InvalidProductIdException {
+        List<Long> missingIds = new ArrayList<>();
+        for (Long requestedId : requestedIds) {
+            if (!productsById.containsKey(requestedId)) {
+                missingIds.add(requestedId);
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            Collections.sort(missingIds);
+            throw new InvalidProductIdException(missingIds);
+        }
+    }
+
     private void validateOrder(OrderVO orderVO) throws InvalidCustomerIdException, InvalidProductsException {
         if (orderVO.getUserId() == null){
             throw new InvalidCustomerIdException();
         }
 
-        if (orderVO.getProductsIdsToQuantity().keySet().isEmpty()){
+        if (orderVO.getProductsIdsToQuantity() == null || orderVO.getProductsIdsToQuantity().keySet().isEmpty()){
             throw new InvalidProductsException();
         }
+
+        for (Integer quantity : orderVO.getProductsIdsToQuantity().values()) {
+            if (quantity == null || quantity <= 0) {
+                throw new InvalidProductsException();
+            }
+        }
     }
 }
 
@@ -1,6 +1,8 @@
 package com.practice.onlineShop.mappers;
 
+import com.practice.onlineShop.currency.RateTable;
 import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.enums.Currencies;
 import com.practice.onlineShop.vos.ProductVO;
 import org.springframework.stereotype.Component;
 
@@ -36,6 +38,42 @@ public class ProductMapper {
         productVO.setDescription(product.getDescription());
         productVO.setStock(product.getStock());
         productVO.setValid(product.isValid());
+        productVO.setVersion(product.getVersion());
         return productVO;
     }
+
+    public ProductVO withStock(ProductVO productVO, int stock, long version) {
+        ProductVO changedVO = new ProductVO();
+        changedVO.setId(productVO.getId());
+        changedVO.setPrice(productVO.getPrice());
+        changedVO.setCurrency(productVO.getCurrency());
+        changedVO.setCode(productVO.getCode());
+        changedVO.setDescription(productVO.getDescription());
+        changedVO.setStock(stock);
+        changedVO.setValid(productVO.isValid());
+        changedVO.setVersion(version);
+        return changedVO;
+    }
+
+    public ProductVO toConvertedVO(ProductVO productVO, Currencies currency, RateTable rateTable) {
+        if (productVO == null) {
+            return null;
+        }
+
+        ProductVO convertedVO = new ProductVO();
+        convertedVO.setId(productVO.getId());
+        convertedVO.setPrice(productVO.getPrice());
+        convertedVO.setCurrency(productVO.getCurrency());
+        convertedVO.setCode(productVO.getCode());
+        convertedVO.setDescription(productVO.getDescription());
+        convertedVO.setStock(productVO.getStock());
+        convertedVO.setValid(productVO.isValid());
+        convertedVO.setVersion(productVO.getVersion());
+        if (productVO.getCurrency() != null) {
+            convertedVO.setConvertedPrice(rateTable.convert(productVO.getCurrency().toMinorUnits(productVO.getPrice()),
+                    productVO.getCurrency(), currency));
+            convertedVO.setConvertedCurrency(currency);
+        }
+        return convertedVO;
+    }
 }
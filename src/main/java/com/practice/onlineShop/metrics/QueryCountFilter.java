@@ -0,0 +1,53 @@
+package com.practice.onlineShop.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final Map<SummaryKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        queryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queries = queryCounter.stop();
+            // the matched pattern (/order/{orderId}) keeps the uri tag bounded, unlike the raw request path
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            getSummary(new SummaryKey(request.getMethod(), uri == null ? "UNKNOWN" : uri.toString())).record(queries);
+        }
+    }
+
+    private DistributionSummary getSummary(SummaryKey summaryKey) {
+        return summaries.computeIfAbsent(summaryKey, key -> DistributionSummary.builder("online-shop.request.queries")
+                .tag("method", key.method)
+                .tag("uri", key.uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class SummaryKey {
+        private final String method;
+        private final String uri;
+    }
+}
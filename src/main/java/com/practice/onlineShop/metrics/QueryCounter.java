@@ -0,0 +1,41 @@
+package com.practice.onlineShop.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Counts the statements Hibernate prepares on the current thread between {@link #start()} and {@link #stop()}.
+ * Statements sent through JdbcTemplate do not pass through Hibernate and are not counted.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+    private static final ThreadLocal<int[]> QUERIES = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] queries = QUERIES.get();
+        if (queries != null) {
+            queries[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    public void start() {
+        QUERIES.set(new int[1]);
+    }
+
+    public int stop() {
+        int[] queries = QUERIES.get();
+        QUERIES.remove();
+        return queries == null ? 0 : queries[0];
+    }
+}
@@ -0,0 +1,17 @@
+package com.practice.onlineShop.projections;
+
+import com.practice.onlineShop.enums.Currencies;
+
+public interface OrderItemDetails {
+    long getProductId();
+
+    String getProductCode();
+
+    int getQuantity();
+
+    long getUnitPrice();
+
+    Currencies getCurrency();
+
+    long getLineTotal();
+}
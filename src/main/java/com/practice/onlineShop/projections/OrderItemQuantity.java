@@ -0,0 +1,7 @@
+package com.practice.onlineShop.projections;
+
+public interface OrderItemQuantity {
+    long getProductId();
+
+    int getQuantity();
+}
@@ -0,0 +1,16 @@
+package com.practice.onlineShop.projections;
+
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.enums.OrderStatus;
+
+public interface OrderSummary {
+    long getId();
+
+    long getUserId();
+
+    OrderStatus getStatus();
+
+    long getTotal();
+
+    Currencies getCurrency();
+}
@@ -1,9 +1,49 @@
 package com.practice.onlineShop.repositories;
 
 import com.practice.onlineShop.entities.Orders;
+import com.practice.onlineShop.enums.OrderStatus;
+import com.practice.onlineShop.projections.OrderItemDetails;
+import com.practice.onlineShop.projections.OrderItemQuantity;
+import com.practice.onlineShop.projections.OrderSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends CrudRepository<Orders, Long> {
+
+    @Query("select i.product.id as productId, i.quantity as quantity from OrderItem i where i.order.id = :orderId")
+    List<OrderItemQuantity> findItemsQuantitiesByOrderId(@Param("orderId") long orderId);
+
+    @Query("select o.id as id, o.user.id as userId, o.status as status, o.total as total, o.currency as currency " +
+            "from Orders o where o.id = :id")
+    Optional<OrderSummary> findSummaryById(@Param("id") long id);
+
+    @Query("select p.id as productId, p.code as productCode, i.quantity as quantity, i.unitPrice as unitPrice, " +
+            "i.currency as currency, i.lineTotal as lineTotal " +
+            "from OrderItem i join i.product p where i.order.id = :orderId order by i.id")
+    List<OrderItemDetails> findItemsDetailsByOrderId(@Param("orderId") long orderId);
+
+    @Query("select o.id as id, o.user.id as userId, o.status as status, o.total as total, o.currency as currency " +
+            "from Orders o where o.user.id = :userId and o.id < :cursor order by o.id desc")
+    List<OrderSummary> findUserOrders(@Param("userId") long userId, @Param("cursor") long cursor, Pageable pageable);
+
+    @Query("select o.id as id, o.user.id as userId, o.status as status, o.total as total, o.currency as currency " +
+            "from Orders o where o.user.id = :userId and o.status = :status and o.id < :cursor order by o.id desc")
+    List<OrderSummary> findUserOrdersWithStatus(@Param("userId") long userId, @Param("status") OrderStatus status,
+                                                @Param("cursor") long cursor, Pageable pageable);
+
+    @Query("select o.status from Orders o where o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") long id);
+
+    @Modifying
+    @Query("update Orders o set o.status = :status where o.id = :id and o.status in :predecessors")
+    int updateStatus(@Param("id") long id, @Param("status") OrderStatus status, @Param("predecessors") Collection<OrderStatus> predecessors);
 }
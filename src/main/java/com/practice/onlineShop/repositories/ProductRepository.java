@@ -1,10 +1,28 @@
 package com.practice.onlineShop.repositories;
 
 import com.practice.onlineShop.entities.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.*;
 
 public interface ProductRepository extends CrudRepository<Product, Long> {
     Optional<Product> findByCode(String code);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
 }
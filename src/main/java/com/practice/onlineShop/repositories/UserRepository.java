@@ -1,7 +1,18 @@
 package com.practice.onlineShop.repositories;
 
 import com.practice.onlineShop.entities.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface UserRepository extends CrudRepository <User, Long>{
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(Long id);
+
+    @EntityGraph(attributePaths = "roles")
+    List<User> findWithRolesByIdIn(Collection<Long> ids);
 }
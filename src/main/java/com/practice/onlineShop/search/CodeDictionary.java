@@ -0,0 +1,308 @@
+package com.practice.onlineShop.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sorted product codes for prefix completion, front coded into one char array: every code is stored as the
+ * length of the prefix it shares with the previous code, the length of the rest and the rest. Every
+ * {@value #BLOCK_SIZE}th code is stored whole so a lookup can binary search the block heads and decode a
+ * single block from there.
+ * <p>
+ * Codes added or removed after the last compaction are kept aside in a sorted set and a set of tombstones
+ * and merged into the lookups, once they are a fraction of the dictionary it is rebuilt with them.
+ * Matching ignores case.
+ */
+public class CodeDictionary {
+    static final int BLOCK_SIZE = 16;
+    private static final int MIN_CHANGES_BEFORE_COMPACTION = 1024;
+    // a String with its char array and its tree or hash set entry, roughly, on a 64-bit JVM with compressed oops
+    private static final int PENDING_CODE_OVERHEAD_BYTES = 96;
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableSet<String> added = new TreeSet<>(ORDER);
+    private final Set<String> removed = new HashSet<>();
+    private char[] entries = new char[0];
+    private int[] blockOffsets = new int[0];
+    private int compactedSize;
+    private long pendingChars;
+
+    public void addAll(Collection<String> codes) {
+        List<String> sortedCodes = new ArrayList<>(codes);
+        sortedCodes.sort(ORDER);
+        lock.writeLock().lock();
+        try {
+            compact();
+            rebuild(sortedCodes.iterator());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(String code) {
+        lock.writeLock().lock();
+        try {
+            if (removed.remove(code)) {
+                pendingChars -= code.length();
+            } else if (!containsCompacted(code) && added.add(code)) {
+                pendingChars += code.length();
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String code) {
+        lock.writeLock().lock();
+        try {
+            if (added.remove(code)) {
+                pendingChars -= code.length();
+            } else if (containsCompacted(code) && removed.add(code)) {
+                pendingChars += code.length();
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} codes starting with the prefix, ignoring case, in case-insensitive order
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> codes = new ArrayList<>(Math.min(limit, BLOCK_SIZE * 4));
+        lock.readLock().lock();
+        try {
+            Cursor compacted = new Cursor();
+            String compactedCode = compacted.seek(prefix);
+            Iterator<String> pending = added.tailSet(pendingLowerBound(prefix), true).iterator();
+            String pendingCode = pending.hasNext() ? pending.next() : null;
+
+            while (codes.size() < limit && (compactedCode != null || pendingCode != null)) {
+                String code;
+                boolean tombstoned = false;
+                if (pendingCode == null || compactedCode != null && ORDER.compare(compactedCode, pendingCode) < 0) {
+                    code = compactedCode;
+                    tombstoned = removed.contains(code);
+                    compactedCode = compacted.hasNext() ? compacted.next() : null;
+                } else {
+                    code = pendingCode;
+                    pendingCode = pending.hasNext() ? pending.next() : null;
+                }
+                if (!code.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    break;
+                }
+                if (!tombstoned) {
+                    codes.add(code);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return codes;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return compactedSize - removed.size() + added.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the heap the dictionary takes, estimated for the codes not compacted yet
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return entries.length * 2L + blockOffsets.length * 4L
+                    + (long) (added.size() + removed.size()) * PENDING_CODE_OVERHEAD_BYTES + pendingChars * 2;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double bytesPerCode() {
+        int size = size();
+        return size == 0 ? 0 : (double) memoryBytes() / size;
+    }
+
+    private void compactIfNeeded() {
+        if (added.size() + removed.size() > Math.max(MIN_CHANGES_BEFORE_COMPACTION, compactedSize / 8)) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            rebuild(added.iterator());
+        }
+    }
+
+    /**
+     * Encodes the compacted codes that are not removed merged with the additions, which have to be sorted.
+     */
+    private void rebuild(Iterator<String> additions) {
+        Encoder encoder = new Encoder(compactedSize, entries.length);
+        Cursor compacted = new Cursor();
+        String compactedCode = compacted.hasNext() ? compacted.next() : null;
+        String addedCode = additions.hasNext() ? additions.next() : null;
+        while (compactedCode != null || addedCode != null) {
+            int comparison = addedCode == null ? -1 : compactedCode == null ? 1 : ORDER.compare(compactedCode, addedCode);
+            if (comparison <= 0) {
+                if (!removed.contains(compactedCode)) {
+                    encoder.append(compactedCode);
+                }
+                compactedCode = compacted.hasNext() ? compacted.next() : null;
+            } else {
+                encoder.append(addedCode);
+            }
+            if (comparison >= 0) {
+                addedCode = additions.hasNext() ? additions.next() : null;
+            }
+        }
+        entries = Arrays.copyOf(encoder.entries, encoder.length);
+        blockOffsets = Arrays.copyOf(encoder.blockOffsets, (encoder.size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        compactedSize = encoder.size;
+        added.clear();
+        removed.clear();
+        pendingChars = 0;
+    }
+
+    private boolean containsCompacted(String code) {
+        Cursor compacted = new Cursor();
+        for (String compactedCode = compacted.seek(code); compactedCode != null;
+             compactedCode = compacted.hasNext() ? compacted.next() : null) {
+            int comparison = String.CASE_INSENSITIVE_ORDER.compare(compactedCode, code);
+            if (comparison > 0) {
+                return false;
+            }
+            if (comparison == 0 && compactedCode.equals(code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // codes that only differ from the prefix in case may sort before it, they have to be included
+    private String pendingLowerBound(String prefix) {
+        String lowerBound = prefix;
+        for (String code : added.headSet(prefix, false).descendingSet()) {
+            if (String.CASE_INSENSITIVE_ORDER.compare(code, prefix) != 0) {
+                break;
+            }
+            lowerBound = code;
+        }
+        return lowerBound;
+    }
+
+    private final class Cursor {
+        private char[] code = new char[32];
+        private int offset;
+        private int index;
+
+        private boolean hasNext() {
+            return index < compactedSize;
+        }
+
+        private String next() {
+            int sharedLength = entries[offset];
+            int suffixLength = entries[offset + 1];
+            if (sharedLength + suffixLength > code.length) {
+                code = Arrays.copyOf(code, Math.max(sharedLength + suffixLength, code.length * 2));
+            }
+            System.arraycopy(entries, offset + 2, code, sharedLength, suffixLength);
+            offset += 2 + suffixLength;
+            index++;
+            return new String(code, 0, sharedLength + suffixLength);
+        }
+
+        /**
+         * Moves to the first code not sorting before {@code target} ignoring case and returns it, null if there is none.
+         */
+        private String seek(String target) {
+            // the last block whose head sorts before the target, the first code not before it is in that block or starts the next one
+            int low = 0;
+            int high = blockOffsets.length - 1;
+            int block = 0;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int headOffset = blockOffsets[middle];
+                String head = new String(entries, headOffset + 2, entries[headOffset + 1]);
+                if (String.CASE_INSENSITIVE_ORDER.compare(head, target) < 0) {
+                    block = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            index = block * BLOCK_SIZE;
+            offset = blockOffsets.length == 0 ? 0 : blockOffsets[block];
+            while (hasNext()) {
+                String compactedCode = next();
+                if (String.CASE_INSENSITIVE_ORDER.compare(compactedCode, target) >= 0) {
+                    return compactedCode;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Encoder {
+        private int[] blockOffsets;
+        private char[] entries;
+        private int length;
+        private int size;
+        private String previous;
+
+        private Encoder(int expectedSize, int expectedLength) {
+            this.blockOffsets = new int[Math.max(expectedSize / BLOCK_SIZE, 1)];
+            this.entries = new char[Math.max(expectedLength, 16)];
+        }
+
+        private void append(String code) {
+            if (code.length() > Character.MAX_VALUE) {
+                throw new IllegalArgumentException("Codes can be at most " + (int) Character.MAX_VALUE + " characters long");
+            }
+            if (code.equals(previous)) {
+                return;
+            }
+            int sharedLength = 0;
+            if (size % BLOCK_SIZE == 0) {
+                if (size / BLOCK_SIZE == blockOffsets.length) {
+                    blockOffsets = Arrays.copyOf(blockOffsets, blockOffsets.length * 2);
+                }
+                blockOffsets[size / BLOCK_SIZE] = length;
+            } else {
+                int maxSharedLength = Math.min(previous.length(), code.length());
+                while (sharedLength < maxSharedLength && previous.charAt(sharedLength) == code.charAt(sharedLength)) {
+                    sharedLength++;
+                }
+            }
+            int suffixLength = code.length() - sharedLength;
+            if (length + 2 + suffixLength > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(length + 2 + suffixLength, entries.length * 2));
+            }
+            entries[length++] = (char) sharedLength;
+            entries[length++] = (char) suffixLength;
+            code.getChars(sharedLength, code.length(), entries, length);
+            length += suffixLength;
+            size++;
+            previous = code;
+        }
+    }
+}
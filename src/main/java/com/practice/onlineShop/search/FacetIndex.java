@@ -0,0 +1,280 @@
+package com.practice.onlineShop.search;
+
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.vos.ProductFilterVO;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column arrays of the filterable product attributes, with bitmaps for validity and stock. A filter ANDs
+ * the bitmaps it needs, then makes a single pass over the remaining products that counts them per
+ * (currency, price bucket, price in range) and collects the page, instead of a GROUP BY per facet. Each
+ * product's currency and price bucket are precomputed into one facet key when it is indexed.
+ * <p>
+ * Facet counts ignore their own filter: currency counts apply every filter except the currency, price
+ * bucket counts every filter except the price range, so the client can show what widening a filter gives.
+ */
+public class FacetIndex {
+    private static final Currencies[] CURRENCIES = Currencies.values();
+
+    private final double[] priceBucketEdges;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> docIdsByProductId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet valid = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private long[] productIds = new long[1024];
+    private double[] prices = new double[1024];
+    private int[] stocks = new int[1024];
+    private short[] facetKeys = new short[1024];
+    private int nextDocId;
+
+    /**
+     * @param priceBucketEdges ascending prices at which a new bucket starts, the first bucket starts at 0
+     */
+    public FacetIndex(double... priceBucketEdges) {
+        if (priceBucketEdges.length > 1000) {
+            throw new IllegalArgumentException("At most 1000 price bucket edges are supported");
+        }
+        this.priceBucketEdges = priceBucketEdges.clone();
+        Arrays.sort(this.priceBucketEdges);
+    }
+
+    public void index(long productId, double price, Currencies currency, int stock, boolean isValid) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByProductId.get(productId);
+            if (docId == null) {
+                docId = nextDocId++;
+                ensureCapacity(docId);
+                docIdsByProductId.put(productId, docId);
+                productIds[docId] = productId;
+                live.set(docId);
+            }
+            prices[docId] = price;
+            int currencySlot = currency == null ? CURRENCIES.length : currency.ordinal();
+            facetKeys[docId] = (short) (currencySlot * (priceBucketEdges.length + 1) + priceBucket(price));
+            valid.set(docId, isValid);
+            setStock(docId, stock);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addStock(long productId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByProductId.get(productId);
+            if (docId != null) {
+                setStock(docId, stocks[docId] + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByProductId.remove(productId);
+            if (docId != null) {
+                live.clear(docId);
+                valid.clear(docId);
+                inStock.clear(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result filter(ProductFilterVO filter, int limit) {
+        // the last currency slot stands for products without a currency, they only match when no currency is asked for
+        boolean anyCurrency = filter.getCurrency() == null || filter.getCurrency().isEmpty();
+        boolean[] currencyAllowed = new boolean[CURRENCIES.length + 1];
+        Arrays.fill(currencyAllowed, anyCurrency);
+        if (!anyCurrency) {
+            filter.getCurrency().forEach(currency -> currencyAllowed[currency.ordinal()] = true);
+        }
+        int priceBucketCount = priceBucketEdges.length + 1;
+        boolean[] facetKeyAllowed = new boolean[currencyAllowed.length * priceBucketCount];
+        for (int facetKey = 0; facetKey < facetKeyAllowed.length; facetKey++) {
+            facetKeyAllowed[facetKey] = currencyAllowed[facetKey / priceBucketCount];
+        }
+        double minPrice = filter.getMinPrice() == null ? Double.NEGATIVE_INFINITY : filter.getMinPrice();
+        double maxPrice = filter.getMaxPrice() == null ? Double.POSITIVE_INFINITY : filter.getMaxPrice();
+        long after = filter.getAfter() == null ? 0 : filter.getAfter();
+
+        // products per (currency, price bucket, price in range), every facet count is a sum over it
+        int[] facetKeyCounts = new int[facetKeyAllowed.length * 2];
+        SmallestIds page = new SmallestIds(limit + 1);
+        lock.readLock().lock();
+        try {
+            long[] candidates = live.toLongArray();
+            restrict(candidates, valid, filter.getValid());
+            restrict(candidates, inStock, filter.getInStock());
+
+            for (int wordIndex = 0; wordIndex < candidates.length; wordIndex++) {
+                for (long word = candidates[wordIndex]; word != 0; word &= word - 1) {
+                    int docId = wordIndex << 6 | Long.numberOfTrailingZeros(word);
+                    int facetKey = facetKeys[docId];
+                    double price = prices[docId];
+                    int priceMatches = price >= minPrice & price <= maxPrice ? 1 : 0;
+                    facetKeyCounts[facetKey << 1 | priceMatches]++;
+                    long productId = productIds[docId];
+                    if (productId < page.bound() && productId > after && priceMatches == 1 && facetKeyAllowed[facetKey]) {
+                        page.offer(productId);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int total = 0;
+        int[] currencyCounts = new int[CURRENCIES.length];
+        int[] priceBucketCounts = new int[priceBucketCount];
+        for (int facetKey = 0; facetKey < facetKeyAllowed.length; facetKey++) {
+            int currency = facetKey / priceBucketCount;
+            int inPriceRange = facetKeyCounts[facetKey << 1 | 1];
+            if (currency < CURRENCIES.length) {
+                currencyCounts[currency] += inPriceRange;
+            }
+            if (facetKeyAllowed[facetKey]) {
+                priceBucketCounts[facetKey % priceBucketCount] += inPriceRange + facetKeyCounts[facetKey << 1];
+                total += inPriceRange;
+            }
+        }
+
+        long[] pageIds = page.sorted();
+        boolean hasNextPage = pageIds.length > limit;
+        return new Result(hasNextPage ? Arrays.copyOf(pageIds, limit) : pageIds, hasNextPage ? pageIds[limit - 1] : null,
+                total, currencyCounts, priceBucketCounts);
+    }
+
+    public double[] getPriceBucketEdges() {
+        return priceBucketEdges.clone();
+    }
+
+    private void restrict(long[] candidates, BitSet attribute, Boolean required) {
+        if (required == null) {
+            return;
+        }
+        long[] attributeWords = attribute.toLongArray();
+        for (int i = 0; i < candidates.length; i++) {
+            long attributeWord = i < attributeWords.length ? attributeWords[i] : 0;
+            candidates[i] &= required ? attributeWord : ~attributeWord;
+        }
+    }
+
+    private void setStock(int docId, int stock) {
+        stocks[docId] = stock;
+        inStock.set(docId, stock > 0 && live.get(docId));
+    }
+
+    private int priceBucket(double price) {
+        int bucket = 0;
+        while (bucket < priceBucketEdges.length && price >= priceBucketEdges[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private void ensureCapacity(int docId) {
+        if (docId >= productIds.length) {
+            int capacity = productIds.length * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            facetKeys = Arrays.copyOf(facetKeys, capacity);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Result {
+        private final long[] productIds;
+        private final Long nextCursor;
+        private final int total;
+        private final int[] currencyCounts;
+        private final int[] priceBucketCounts;
+    }
+
+    /**
+     * Keeps the smallest ids offered, as a max-heap. Product ids mostly grow with doc ids, so once the heap
+     * is full nearly every later id is rejected by the first comparison.
+     */
+    private static final class SmallestIds {
+        private final long[] heap;
+        private int size;
+
+        private SmallestIds(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        /**
+         * Ids from here on can not make it into the heap anymore.
+         */
+        private long bound() {
+            return size < heap.length ? Long.MAX_VALUE : heap[0];
+        }
+
+        private void offer(long id) {
+            if (size < heap.length) {
+                heap[size] = id;
+                siftUp(size++);
+            } else if (id < heap[0]) {
+                heap[0] = id;
+                siftDown(0);
+            }
+        }
+
+        private long[] sorted() {
+            long[] ids = Arrays.copyOf(heap, size);
+            Arrays.sort(ids);
+            return ids;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] >= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                if (left < size && heap[left] > heap[largest]) {
+                    largest = left;
+                }
+                if (left + 1 < size && heap[left + 1] > heap[largest]) {
+                    largest = left + 1;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(largest, index);
+                index = largest;
+            }
+        }
+
+        private void swap(int first, int second) {
+            long id = heap[first];
+            heap[first] = heap[second];
+            heap[second] = id;
+        }
+    }
+}
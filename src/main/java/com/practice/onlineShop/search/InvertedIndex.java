@@ -0,0 +1,439 @@
+package com.practice.onlineShop.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term to product index over product codes and descriptions. Every query term must match (the last one
+ * also as a prefix) and hits are ranked by the idf of the matched terms, with code matches weighing more
+ * than description matches and prefix matches less than whole terms.
+ * <p>
+ * Products get dense document ids and postings are sorted int arrays of {@code docId << 1 | inCode}, so a
+ * query walks the postings of its most selective term and gallops forward through the others.
+ */
+public class InvertedIndex {
+    // a prefix matches at most this many longer terms, the first ones in term order, the others are ignored
+    public static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float CODE_BOOST = 3f;
+    private static final float PREFIX_PENALTY = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final Comparator<Hit> WORST_HIT_FIRST = Comparator.<Hit>comparingDouble(hit -> hit.score)
+            .thenComparing(Comparator.<Hit>comparingInt(hit -> hit.docId).reversed());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private final Map<Long, Integer> docIdsByProductId = new HashMap<>();
+    private String[] codes = new String[1024];
+    private String[][] termsByDocId = new String[1024][];
+    private int nextDocId;
+    private int documents;
+
+    public void index(long productId, String code, String description) {
+        Set<String> codeTerms = tokenize(code);
+        Set<String> terms = new LinkedHashSet<>(codeTerms);
+        terms.addAll(tokenize(description));
+
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByProductId.get(productId);
+            if (docId == null) {
+                docId = nextDocId++;
+                ensureCapacity(docId);
+                docIdsByProductId.put(productId, docId);
+                documents++;
+            } else {
+                unindexTerms(docId);
+            }
+            for (String term : terms) {
+                postingsByTerm.computeIfAbsent(term, key -> new Postings()).add(docId, codeTerms.contains(term));
+            }
+            codes[docId] = code;
+            termsByDocId[docId] = terms.toArray(new String[0]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByProductId.remove(productId);
+            if (docId == null) {
+                return;
+            }
+            unindexTerms(docId);
+            codes[docId] = null;
+            termsByDocId[docId] = null;
+            documents--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the codes of the best {@code limit} products, best first. The last query term matches itself and
+     * at most {@value #MAX_PREFIX_EXPANSIONS} longer terms starting with it.
+     */
+    public List<String> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(tokenize(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            QueryTerm[] terms = new QueryTerm[queryTerms.size()];
+            QueryTerm mostSelective = null;
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = expand(queryTerms.get(i), i == terms.length - 1);
+                if (terms[i].matches == 0) {
+                    return Collections.emptyList();
+                }
+                if (mostSelective == null || terms[i].matches < mostSelective.matches) {
+                    mostSelective = terms[i];
+                }
+            }
+
+            // the other terms are probed most selective first, so most candidates are rejected after one lookup
+            Arrays.sort(terms, Comparator.comparingInt(term -> term.matches));
+            float maxScore = 0;
+            for (QueryTerm term : terms) {
+                maxScore += term.maxWeight;
+            }
+            PriorityQueue<Hit> bestHits = new PriorityQueue<>(limit + 1, WORST_HIT_FIRST);
+            for (int docId = mostSelective.nextDocId(); docId >= 0; docId = mostSelective.nextDocId()) {
+                float score = mostSelective.currentWeight;
+                for (QueryTerm term : terms) {
+                    if (term == mostSelective) {
+                        continue;
+                    }
+                    float weight = term.weight(docId);
+                    if (weight == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += weight;
+                }
+                if (score == 0) {
+                    continue;
+                }
+                if (bestHits.size() < limit) {
+                    bestHits.add(new Hit(docId, score));
+                } else if (score > bestHits.peek().score) {
+                    // candidates come in docId order, so on equal scores the hit already kept wins
+                    bestHits.poll();
+                    bestHits.add(new Hit(docId, score));
+                }
+                // no later candidate can score higher, and on equal scores the earlier ones win
+                if (bestHits.size() == limit && bestHits.peek().score >= maxScore) {
+                    break;
+                }
+            }
+
+            String[] productCodes = new String[bestHits.size()];
+            for (int i = productCodes.length - 1; i >= 0; i--) {
+                productCodes[i] = codes[bestHits.poll().docId];
+            }
+            return Arrays.asList(productCodes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int tokenStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!tokenChar && tokenStart >= 0) {
+                tokens.add(text.substring(tokenStart, i).toLowerCase(Locale.ROOT));
+                tokenStart = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private QueryTerm expand(String term, boolean matchPrefix) {
+        QueryTerm queryTerm = new QueryTerm();
+        Postings exactPostings = postingsByTerm.get(term);
+        if (exactPostings != null) {
+            queryTerm.add(exactPostings, idf(exactPostings));
+        }
+        if (matchPrefix && term.length() >= MIN_PREFIX_LENGTH) {
+            NavigableMap<String, Postings> longerTerms = postingsByTerm.tailMap(term, false);
+            int expansions = 0;
+            for (Map.Entry<String, Postings> entry : longerTerms.entrySet()) {
+                if (!entry.getKey().startsWith(term) || expansions == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                queryTerm.add(entry.getValue(), idf(entry.getValue()) * PREFIX_PENALTY);
+                expansions++;
+            }
+        }
+        return queryTerm;
+    }
+
+    private float idf(Postings postings) {
+        return (float) Math.log(1 + (double) documents / postings.size());
+    }
+
+    private void unindexTerms(int docId) {
+        for (String term : termsByDocId[docId]) {
+            Postings postings = postingsByTerm.get(term);
+            postings.remove(docId);
+            if (postings.size() == 0) {
+                postingsByTerm.remove(term);
+            }
+        }
+    }
+
+    private void ensureCapacity(int docId) {
+        if (docId >= codes.length) {
+            codes = Arrays.copyOf(codes, codes.length * 2);
+            termsByDocId = Arrays.copyOf(termsByDocId, termsByDocId.length * 2);
+        }
+    }
+
+    private static final class Hit {
+        private final int docId;
+        private final float score;
+
+        private Hit(int docId, float score) {
+            this.docId = docId;
+            this.score = score;
+        }
+    }
+
+    /**
+     * One query term with the index terms it matches: itself and, for the last query term, its extensions.
+     * Doc ids are only ever asked for in ascending order, so every postings list keeps a forward-only cursor.
+     */
+    private static final class QueryTerm {
+        private Postings[] postings = new Postings[4];
+        private float[] weights = new float[4];
+        private int[] positions;
+        private int[] heap;
+        private int heapSize;
+        private int size;
+        private int matches;
+        private float maxWeight;
+        private float currentWeight;
+
+        private void add(Postings termPostings, float weight) {
+            if (size == postings.length) {
+                postings = Arrays.copyOf(postings, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            postings[size] = termPostings;
+            weights[size++] = weight;
+            matches += termPostings.size();
+            maxWeight = Math.max(maxWeight, termPostings.inCodeEntries > 0 ? weight * CODE_BOOST : weight);
+        }
+
+        /**
+         * Probes a doc id, which must not be lower than the previous one probed.
+         */
+        private float weight(int docId) {
+            if (positions == null) {
+                positions = new int[size];
+            }
+            float best = 0;
+            for (int i = 0; i < size; i++) {
+                int position = postings[i].advance(positions[i], docId);
+                positions[i] = position;
+                if (position < postings[i].size() && postings[i].docId(position) == docId) {
+                    best = Math.max(best, weightAt(i, position));
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Walks the union of all postings in doc id order, leaving the doc's weight in {@link #currentWeight}.
+         */
+        private int nextDocId() {
+            if (heap == null) {
+                positions = new int[size];
+                heap = new int[size];
+                for (int i = 0; i < size; i++) {
+                    heap[heapSize++] = i;
+                    siftUp(heapSize - 1);
+                }
+            }
+            if (heapSize == 0) {
+                return -1;
+            }
+            int docId = headDocId(heap[0]);
+            currentWeight = 0;
+            while (heapSize > 0 && headDocId(heap[0]) == docId) {
+                int postingsIndex = heap[0];
+                currentWeight = Math.max(currentWeight, weightAt(postingsIndex, positions[postingsIndex]));
+                if (++positions[postingsIndex] == postings[postingsIndex].size()) {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(0);
+            }
+            return docId;
+        }
+
+        private float weightAt(int postingsIndex, int position) {
+            return postings[postingsIndex].inCode(position) ? weights[postingsIndex] * CODE_BOOST : weights[postingsIndex];
+        }
+
+        private int headDocId(int postingsIndex) {
+            return postings[postingsIndex].docId(positions[postingsIndex]);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (headDocId(heap[parent]) <= headDocId(heap[index])) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                if (left < heapSize && headDocId(heap[left]) < headDocId(heap[smallest])) {
+                    smallest = left;
+                }
+                if (left + 1 < heapSize && headDocId(heap[left + 1]) < headDocId(heap[smallest])) {
+                    smallest = left + 1;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(smallest, index);
+                index = smallest;
+            }
+        }
+
+        private void swap(int first, int second) {
+            int postingsIndex = heap[first];
+            heap[first] = heap[second];
+            heap[second] = postingsIndex;
+        }
+    }
+
+    private static final class Postings {
+        private int[] entries = new int[2];
+        private int size;
+        private int inCodeEntries;
+
+        private int size() {
+            return size;
+        }
+
+        private int docId(int index) {
+            return entries[index] >>> 1;
+        }
+
+        private boolean inCode(int index) {
+            return (entries[index] & 1) != 0;
+        }
+
+        private void add(int docId, boolean inCode) {
+            int entry = docId << 1 | (inCode ? 1 : 0);
+            int index = indexOf(docId);
+            if (index >= 0) {
+                inCodeEntries += (entry & 1) - (entries[index] & 1);
+                entries[index] = entry;
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            System.arraycopy(entries, insertAt, entries, insertAt + 1, size - insertAt);
+            entries[insertAt] = entry;
+            inCodeEntries += entry & 1;
+            size++;
+        }
+
+        private void remove(int docId) {
+            int index = indexOf(docId);
+            if (index >= 0) {
+                inCodeEntries -= entries[index] & 1;
+                System.arraycopy(entries, index + 1, entries, index, size - index - 1);
+                size--;
+            }
+        }
+
+        /**
+         * Gallops forward from {@code from} to the first position whose doc id is not lower than {@code docId}.
+         */
+        private int advance(int from, int docId) {
+            if (from >= size || entries[from] >>> 1 >= docId) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            int high = from + step;
+            while (high < size && entries[high] >>> 1 < docId) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            low++;
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (entries[middle] >>> 1 < docId) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int indexOf(int docId) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleDocId = entries[middle] >>> 1;
+                if (middleDocId < docId) {
+                    low = middle + 1;
+                } else if (middleDocId > docId) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
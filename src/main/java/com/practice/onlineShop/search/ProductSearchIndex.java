@@ -0,0 +1,113 @@
+package com.practice.onlineShop.search;
+
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.events.ProductChangedEvent;
+import com.practice.onlineShop.events.StockChangedEvent;
+import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.vos.ProductFilterVO;
+import com.practice.onlineShop.vos.ProductVO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory product indexes, the {@link InvertedIndex} for text search, the {@link FacetIndex}
+ * for filtering and the {@link CodeDictionary} for code completion: built from one streamed scan at startup and updated from the events {@code ProductService}
+ * and {@code StockService} publish once a change is committed.
+ */
+@Component
+public class ProductSearchIndex implements SmartInitializingSingleton, MeterBinder {
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final InvertedIndex invertedIndex = new InvertedIndex();
+    private final FacetIndex facetIndex;
+    private final CodeDictionary codeDictionary = new CodeDictionary();
+
+    public ProductSearchIndex(ProductRepository productRepository, TransactionTemplate transactionTemplate, EntityManager entityManager,
+                              @Value("${online-shop.search.price-buckets:10,50,100,200,500}") double[] priceBucketEdges) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.facetIndex = new FacetIndex(priceBucketEdges);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> codes = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                products.forEach(product -> {
+                    facetIndex.index(product.getId(), product.getPrice(), product.getCurrency(), product.getStock(), product.isValid());
+                    if (product.getCode() != null) {
+                        invertedIndex.index(product.getId(), product.getCode(), product.getDescription());
+                        codes.add(product.getCode());
+                    }
+                    entityManager.detach(product);
+                });
+            }
+        });
+        codeDictionary.addAll(codes);
+    }
+
+    // a product without a code is only filtered, search and completion return codes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductVO product = event.getProduct();
+        if (event.isRemoved()) {
+            invertedIndex.remove(product.getId());
+            facetIndex.remove(product.getId());
+            if (product.getCode() != null) {
+                codeDictionary.remove(product.getCode());
+            }
+        } else {
+            facetIndex.index(product.getId(), product.getPrice(), product.getCurrency(), product.getStock(), product.isValid());
+            if (product.getCode() == null) {
+                invertedIndex.remove(product.getId());
+                return;
+            }
+            invertedIndex.index(product.getId(), product.getCode(), product.getDescription());
+            codeDictionary.add(product.getCode());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        event.getProductsIdsToDelta().forEach(facetIndex::addStock);
+    }
+
+    public List<String> search(String query, int limit) {
+        return invertedIndex.search(query, limit);
+    }
+
+    public List<String> suggestCodes(String prefix, int limit) {
+        return codeDictionary.suggest(prefix, limit);
+    }
+
+    public FacetIndex.Result filter(ProductFilterVO filter, int limit) {
+        return facetIndex.filter(filter, limit);
+    }
+
+    public double[] getPriceBucketEdges() {
+        return facetIndex.getPriceBucketEdges();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("online-shop.search.indexed-products", invertedIndex, InvertedIndex::size).register(registry);
+        Gauge.builder("online-shop.search.code-dictionary.size", codeDictionary, CodeDictionary::memoryBytes)
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("online-shop.search.code-dictionary.bytes-per-code", codeDictionary, CodeDictionary::bytesPerCode)
+                .baseUnit("bytes").register(registry);
+    }
+}
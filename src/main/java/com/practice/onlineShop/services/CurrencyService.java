@@ -0,0 +1,63 @@
+package com.practice.onlineShop.services;
+
+import com.practice.onlineShop.annotations.CustomerId;
+import com.practice.onlineShop.annotations.RequiresRole;
+import com.practice.onlineShop.currency.RateTable;
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.exceptions.InvalidRatesException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.practice.onlineShop.enums.Roles.ADMIN;
+
+/**
+ * Holds the current {@link RateTable}, loaded from the rates file at startup and replaced as a whole when an
+ * admin sends new rates. Callers take one snapshot per request and convert with it, so a listing never mixes
+ * two rate tables and the conversions don't go through this bean's proxies.
+ */
+@Service
+public class CurrencyService {
+    private final AtomicReference<RateTable> rateTable;
+
+    public CurrencyService(@Value("${online-shop.currency.rates-file:classpath:currency-rates.properties}") Resource ratesFile) {
+        this.rateTable = new AtomicReference<>(new RateTable(loadRates(ratesFile)));
+    }
+
+    public RateTable getRateTable() {
+        return rateTable.get();
+    }
+
+    @RequiresRole(ADMIN)
+    public void updateRates(Map<Currencies, BigDecimal> rates, @CustomerId Long customerId) throws InvalidRatesException {
+        if (rates == null) {
+            throw new InvalidRatesException();
+        }
+        try {
+            rateTable.set(new RateTable(rates));
+        } catch (IllegalArgumentException | ArithmeticException exception) {
+            throw new InvalidRatesException();
+        }
+    }
+
+    private static Map<Currencies, BigDecimal> loadRates(Resource ratesFile) {
+        Properties properties = new Properties();
+        try (InputStream inputStream = ratesFile.getInputStream()) {
+            properties.load(inputStream);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not read the currency rates from " + ratesFile, exception);
+        }
+        Map<Currencies, BigDecimal> rates = new EnumMap<>(Currencies.class);
+        properties.forEach((currency, rate) -> rates.put(Currencies.valueOf(currency.toString().trim()), new BigDecimal(rate.toString().trim())));
+        return rates;
+    }
+}
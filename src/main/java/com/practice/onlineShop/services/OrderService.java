@@ -1,107 +1,255 @@
 package com.practice.onlineShop.services;
 
+import com.practice.onlineShop.annotations.CustomerId;
+import com.practice.onlineShop.annotations.RequiresRole;
+import com.practice.onlineShop.caches.RolesCache;
+import com.practice.onlineShop.currency.RateTable;
+import com.practice.onlineShop.entities.OrderItem;
 import com.practice.onlineShop.entities.Orders;
 import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.enums.OrderStatus;
 import com.practice.onlineShop.exceptions.*;
 import com.practice.onlineShop.mappers.OrderMapper;
+import com.practice.onlineShop.projections.OrderItemQuantity;
+import com.practice.onlineShop.projections.OrderSummary;
 import com.practice.onlineShop.repositories.OrderRepository;
+import com.practice.onlineShop.vos.OrderDetailsVO;
+import com.practice.onlineShop.vos.OrderResultVO;
+import com.practice.onlineShop.vos.OrderSummaryVO;
 import com.practice.onlineShop.vos.OrderVO;
+import com.practice.onlineShop.vos.OrdersPageVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+
+import static com.practice.onlineShop.enums.OrderStatus.*;
+import static com.practice.onlineShop.enums.Roles.ADMIN;
+import static com.practice.onlineShop.enums.Roles.CLIENT;
+import static com.practice.onlineShop.enums.Roles.EXPEDITOR;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final Currencies DEFAULT_ORDER_CURRENCY = Currencies.EUR;
+
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final StockService stockService;
+    private final CurrencyService currencyService;
+    private final RolesCache rolesCache;
 
-    public void addOrder(OrderVO orderVO) throws InvalidCustomerIdException, InvalidProductsException, InvalidProductIdException, NotEnoughStockException {
-        validateStock(orderVO);
-
+    @Transactional(rollbackFor = Exception.class)
+    @RequiresRole(CLIENT)
+    public void addOrder(@CustomerId OrderVO orderVO) throws InvalidCustomerIdException, InvalidProductsException, InvalidProductIdException, NotEnoughStockException {
         Orders order = orderMapper.toEntity(orderVO);
-        order.getOrderItems().forEach(orderItem -> {
-            int oldProductStock = orderItem.getProduct().getStock();
-            int productId = (int) orderItem.getProduct().getId();
-            int sellStock = orderVO.getProductsIdsToQuantity().get(productId);
-            orderItem.getProduct().setStock(oldProductStock - sellStock);
-        });
+        snapshotPrices(order, orderVO.getCurrency(), currencyService.getRateTable());
+        stockService.reserveStock(orderVO.getProductsIdsToQuantity());
         orderRepository.save(order);
     }
 
+    // every order of the batch is checked against its own user here, @RequiresRole only knows a single customer
+    @Transactional(rollbackFor = Exception.class)
+    public List<OrderResultVO> addOrders(List<OrderVO> orderVOs) {
+        Map<Long, User> usersById = orderMapper.getUsersById(orderVOs);
+        Map<Long, Product> productsById = orderMapper.getProductsById(orderVOs);
+        RateTable rateTable = currencyService.getRateTable();
+
+        List<OrderResultVO> results = new ArrayList<>(orderVOs.size());
+        List<OrderResultVO> validResults = new ArrayList<>();
+        List<Orders> validOrders = new ArrayList<>();
+        List<Map<Integer, Integer>> reservations = new ArrayList<>();
+        for (int i = 0; i < orderVOs.size(); i++) {
+            OrderResultVO result = new OrderResultVO();
+            result.setIndex(i);
+            results.add(result);
+            try {
+                Orders order = orderMapper.toEntity(orderVOs.get(i), usersById, productsById);
+                if (!order.getUser().getRoles().contains(CLIENT)) {
+                    throw new InvalidOperationException();
+                }
+                snapshotPrices(order, orderVOs.get(i).getCurrency(), rateTable);
+                validResults.add(result);
+                validOrders.add(order);
+                reservations.add(orderVOs.get(i).getProductsIdsToQuantity());
+            } catch (InvalidCustomerIdException | InvalidProductsException | InvalidProductIdException | InvalidOperationException e) {
+                result.setError(OrderErrorMessages.getMessage(e));
+            }
+        }
+
+        boolean[] reserved = stockService.reserveStock(reservations);
+        List<Orders> acceptedOrders = new ArrayList<>();
+        List<OrderResultVO> acceptedResults = new ArrayList<>();
+        for (int i = 0; i < reserved.length; i++) {
+            if (reserved[i]) {
+                acceptedOrders.add(validOrders.get(i));
+                acceptedResults.add(validResults.get(i));
+            } else {
+                validResults.get(i).setError(OrderErrorMessages.getMessage(new NotEnoughStockException()));
+            }
+        }
+
+        orderRepository.saveAll(acceptedOrders);
+        for (int i = 0; i < acceptedOrders.size(); i++) {
+            acceptedResults.get(i).setOrderId(acceptedOrders.get(i).getId());
+        }
+        return results;
+    }
+
+    @Transactional(readOnly = true)
+    @RequiresRole({CLIENT, ADMIN})
+    public OrderDetailsVO getOrder(Long orderId, @CustomerId Long customerId) throws InvalidOrderIdException, InvalidCustomerIdException, InvalidOperationException {
+        if (orderId == null) {
+            throw new InvalidOrderIdException();
+        }
+        Optional<OrderSummary> orderSummary = orderRepository.findSummaryById(orderId);
+        if (!orderSummary.isPresent()) {
+            throw new InvalidOrderIdException();
+        }
+        throwExceptionIfNotOwnerOrAdmin(orderSummary.get().getUserId(), customerId);
+        return orderMapper.toDetailsVO(orderSummary.get(), orderRepository.findItemsDetailsByOrderId(orderId));
+    }
+
+    @RequiresRole({CLIENT, ADMIN})
+    public OrdersPageVO getUserOrders(long userId, @CustomerId Long customerId, OrderStatus status, Long cursor, Integer limit)
+            throws InvalidCustomerIdException, InvalidOperationException {
+        throwExceptionIfNotOwnerOrAdmin(userId, customerId);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long before = cursor == null ? Long.MAX_VALUE : cursor;
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<OrderSummary> ordersFromDb = status == null
+                ? orderRepository.findUserOrders(userId, before, pageRequest)
+                : orderRepository.findUserOrdersWithStatus(userId, status, before, pageRequest);
+
+        List<OrderSummaryVO> orders = new ArrayList<>(Math.min(ordersFromDb.size(), pageSize));
+        for (int i = 0; i < ordersFromDb.size() && i < pageSize; i++) {
+            orders.add(orderMapper.toSummaryVO(ordersFromDb.get(i)));
+        }
+
+        OrdersPageVO ordersPage = new OrdersPageVO();
+        ordersPage.setOrders(orders);
+        if (ordersFromDb.size() > pageSize) {
+            ordersPage.setNextCursor(orders.get(pageSize - 1).getId());
+        }
+        return ordersPage;
+    }
+
     @Transactional
-    public void deliver(Integer orderId, Long customerId) throws InvalidOrderIdException, OrderCanceledException {
-        System.out.println("Customer-ul cu id-ul:" + customerId + " este in service");
+    @RequiresRole(EXPEDITOR)
+    public void deliver(Integer orderId, @CustomerId Long customerId) throws InvalidOrderIdException, OrderCanceledException, OrderAlreadyDeliveredException {
         throwExceptionIfOrderIdIsAbsent(orderId);
 
-        Orders order = getOrderOrThrowException(orderId);
-if (order.isCanceled()){
-    throw new OrderCanceledException();
-}
-        order.setDelivered(true);
+        Optional<OrderStatus> blockingStatus = changeStatus(orderId, DELIVERED);
+        if (blockingStatus.isPresent()) {
+            if (blockingStatus.get() == CANCELED) {
+                throw new OrderCanceledException();
+            }
+            throw new OrderAlreadyDeliveredException();
+        }
     }
 
     @Transactional
-    public void cancelOrder(Integer orderId, Long customerId) throws InvalidOrderIdException, OrderAlreadyDeliveredException {
-        System.out.println("Customer-ul cu id-ul:" + customerId + " este in service pentru a anula comanda " + orderId);
-
+    @RequiresRole(CLIENT)
+    public void cancelOrder(Integer orderId, @CustomerId Long customerId) throws InvalidOrderIdException, OrderAlreadyDeliveredException, OrderCanceledException {
         throwExceptionIfOrderIdIsAbsent(orderId);
-        Orders order = getOrderOrThrowException(orderId);
-        if (order.isDelivered()) {
+
+        Optional<OrderStatus> blockingStatus = changeStatus(orderId, CANCELED);
+        if (blockingStatus.isPresent()) {
+            if (blockingStatus.get() == CANCELED) {
+                throw new OrderCanceledException();
+            }
             throw new OrderAlreadyDeliveredException();
         }
-        order.setCanceled(true);
     }
 
     @Transactional
-    public void returnOrder(Integer orderId,Long customerId) throws InvalidOrderIdException, OrderNotDeliveredYetException, OrderCanceledException {
-        System.out.println("Customer-ul cu id-ul:" + customerId + " este in service pentru a returna comanda " + orderId);
+    @RequiresRole(CLIENT)
+    public void returnOrder(Integer orderId, @CustomerId Long customerId) throws InvalidOrderIdException, OrderNotDeliveredYetException, OrderCanceledException, OrderAlreadyReturnedException {
         throwExceptionIfOrderIdIsAbsent(orderId);
-        Orders order = getOrderOrThrowException(orderId);
 
-        if (!order.isDelivered()){
-            throw new OrderNotDeliveredYetException();
-        }
-        if (order.isCanceled()){
-            throw new OrderCanceledException();
+        Optional<OrderStatus> blockingStatus = changeStatus(orderId, RETURNED);
+        if (blockingStatus.isPresent()) {
+            switch (blockingStatus.get()) {
+                case CANCELED:
+                    throw new OrderCanceledException();
+                case RETURNED:
+                    throw new OrderAlreadyReturnedException();
+                default:
+                    throw new OrderNotDeliveredYetException();
+            }
         }
 
-        order.setReturned(true);
-        order.getOrderItems().forEach(orderItem -> {
-            Product product = orderItem.getProduct();
-            int oldStock = product.getStock();
-            product.setStock(oldStock + orderItem.getQuantity());
-        });
+        Map<Long, Integer> productsIdsToQuantity = new HashMap<>();
+        for (OrderItemQuantity itemQuantity : orderRepository.findItemsQuantitiesByOrderId(orderId)) {
+            productsIdsToQuantity.merge(itemQuantity.getProductId(), itemQuantity.getQuantity(), Integer::sum);
+        }
+        stockService.restock(productsIdsToQuantity);
     }
 
-    private Orders getOrderOrThrowException(Integer orderId) throws InvalidOrderIdException {
-        Optional<Orders> ordersOptional = orderRepository.findById(orderId.longValue());
-        if (!ordersOptional.isPresent()) {
+    // the status is only changed when the order is in one of the allowed predecessors, so concurrent
+    // transitions of the same order can not both win; returns the status which blocked the transition
+    private Optional<OrderStatus> changeStatus(Integer orderId, OrderStatus status) throws InvalidOrderIdException {
+        if (orderRepository.updateStatus(orderId, status, status.getPredecessors()) == 1) {
+            return Optional.empty();
+        }
+        Optional<OrderStatus> currentStatus = orderRepository.findStatusById(orderId);
+        if (!currentStatus.isPresent()) {
             throw new InvalidOrderIdException();
         }
-        return ordersOptional.get();
+        return currentStatus;
     }
 
-    private void throwExceptionIfOrderIdIsAbsent(Integer orderId) throws InvalidOrderIdException {
-        if (orderId == null) {
-            throw new InvalidOrderIdException();
+    // the prices are copied from the products at checkout, so the order keeps what was paid whatever the products
+    // cost later; the total is the sum of the line totals converted to the order's currency, all in minor units
+    private void snapshotPrices(Orders order, Currencies requestedCurrency, RateTable rateTable) {
+        Currencies orderCurrency = requestedCurrency == null ? getItemsCurrency(order.getOrderItems()) : requestedCurrency;
+        long total = 0;
+        for (OrderItem orderItem : order.getOrderItems()) {
+            Product product = orderItem.getProduct();
+            // a product without a currency is taken as priced in the order's currency
+            Currencies currency = product.getCurrency() == null ? orderCurrency : product.getCurrency();
+            orderItem.setCurrency(currency);
+            orderItem.setUnitPrice(currency.toMinorUnits(product.getPrice()));
+            orderItem.setLineTotal(Math.multiplyExact(orderItem.getUnitPrice(), orderItem.getQuantity()));
+            total = Math.addExact(total, rateTable.convert(orderItem.getLineTotal(), currency, orderCurrency));
         }
+        order.setCurrency(orderCurrency);
+        order.setTotal(total);
     }
 
-    private void validateStock(OrderVO orderVO) throws NotEnoughStockException {
-        Map<Integer, Integer> productsIdsToQuantityMap = orderVO.getProductsIdsToQuantity();
-        Set<Integer> productsIds = productsIdsToQuantityMap.keySet();
-        for (Integer productId : productsIds) {
-            Integer quantity = productsIdsToQuantityMap.get(productId);
-            boolean havingEnoughStock = stockService.isHavingEnoughStock(productId, quantity);
-            if (!havingEnoughStock) {
-                throw new NotEnoughStockException();
+    private Currencies getItemsCurrency(List<OrderItem> orderItems) {
+        Currencies itemsCurrency = null;
+        for (OrderItem orderItem : orderItems) {
+            Currencies currency = orderItem.getProduct().getCurrency();
+            if (itemsCurrency == null) {
+                itemsCurrency = currency;
+            } else if (currency != null && currency != itemsCurrency) {
+                return DEFAULT_ORDER_CURRENCY;
             }
         }
+        return itemsCurrency == null ? DEFAULT_ORDER_CURRENCY : itemsCurrency;
+    }
+
+    // @RequiresRole only checks the role, a client may only read their own orders while an admin may read anybody's
+    private void throwExceptionIfNotOwnerOrAdmin(long ownerId, Long customerId) throws InvalidOperationException {
+        if (ownerId != customerId && (rolesCache.getRolesMask(customerId).orElse(0) & ADMIN.mask()) == 0) {
+            throw new InvalidOperationException();
+        }
+    }
+
+    private void throwExceptionIfOrderIdIsAbsent(Integer orderId) throws InvalidOrderIdException {
+        if (orderId == null) {
+            throw new InvalidOrderIdException();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.practice.onlineShop.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.enums.ExportFormats;
+import com.practice.onlineShop.mappers.ProductMapper;
+import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.vos.ProductVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
+
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+    private static final String CSV_HEADER = "id,code,description,price,currency,stock,valid";
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long exportProducts(ExportFormats format, OutputStream outputStream) throws IOException {
+        if (format == ExportFormats.CSV) {
+            return exportAsCsv(outputStream);
+        }
+        return exportAsNdjson(outputStream);
+    }
+
+    private long exportAsNdjson(OutputStream outputStream) throws IOException {
+        ObjectWriter productWriter = objectMapper.writerFor(ProductVO.class)
+                .without(FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        long exported = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(nonClosing(outputStream));
+             Stream<Product> products = productRepository.streamAll()) {
+            Iterator<Product> productsIterator = products.iterator();
+            while (productsIterator.hasNext()) {
+                productWriter.writeValue(generator, toDetachedVO(productsIterator.next()));
+                exported++;
+            }
+            if (exported > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        outputStream.flush();
+        return exported;
+    }
+
+    private long exportAsCsv(OutputStream outputStream) throws IOException {
+        long exported = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(nonClosing(outputStream), StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        try (Stream<Product> products = productRepository.streamAll()) {
+            Iterator<Product> productsIterator = products.iterator();
+            while (productsIterator.hasNext()) {
+                ProductVO productVO = toDetachedVO(productsIterator.next());
+                writer.write(Long.toString(productVO.getId()));
+                writer.write(',');
+                writeCsvField(writer, productVO.getCode());
+                writer.write(',');
+                writeCsvField(writer, productVO.getDescription());
+                writer.write(',');
+                writer.write(Double.toString(productVO.getPrice()));
+                writer.write(',');
+                writer.write(productVO.getCurrency() == null ? "" : productVO.getCurrency().name());
+                writer.write(',');
+                writer.write(Integer.toString(productVO.getStock()));
+                writer.write(',');
+                writer.write(Boolean.toString(productVO.isValid()));
+                writer.write('\n');
+                exported++;
+            }
+        }
+        writer.close();
+        return exported;
+    }
+
+    private ProductVO toDetachedVO(Product product) {
+        ProductVO productVO = productMapper.toVO(product);
+        entityManager.detach(product);
+        return productVO;
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private OutputStream nonClosing(OutputStream outputStream) {
+        return new FilterOutputStream(outputStream) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -1,49 +1,149 @@
 package com.practice.onlineShop.services;
 
+import com.practice.onlineShop.annotations.CustomerId;
+import com.practice.onlineShop.annotations.RequiresRole;
+import com.practice.onlineShop.annotations.RetryOnOptimisticLock;
+import com.practice.onlineShop.caches.ProductCache;
+import com.practice.onlineShop.currency.RateTable;
+import com.practice.onlineShop.enums.Currencies;
 import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.events.ProductChangedEvent;
 import com.practice.onlineShop.exceptions.InvalidProductCodeException;
 import com.practice.onlineShop.mappers.ProductMapper;
 import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.search.FacetIndex;
+import com.practice.onlineShop.search.InvertedIndex;
+import com.practice.onlineShop.search.ProductSearchIndex;
+import com.practice.onlineShop.vos.FilteredProductsPageVO;
+import com.practice.onlineShop.vos.PriceBucketVO;
+import com.practice.onlineShop.vos.ProductFilterVO;
 import com.practice.onlineShop.vos.ProductVO;
+import com.practice.onlineShop.vos.ProductsPageVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.practice.onlineShop.enums.Roles.ADMIN;
+import static com.practice.onlineShop.enums.Roles.EDITOR;
+
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final ProductMapper productMapper;
     private final ProductRepository productRepository;
-
-    public void addProduct(ProductVO productVO, Long customerId) {
-        System.out.println("Customer with id " + customerId + " is in service");
+    private final StockService stockService;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final CurrencyService currencyService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @RequiresRole(ADMIN)
+    public void addProduct(ProductVO productVO, @CustomerId Long customerId) {
         Product product = productMapper.toEntity(productVO);
         productRepository.save(product);
+        stockService.stockSet(product.getId(), product.getStock());
+        eventPublisher.publishEvent(new ProductChangedEvent(productMapper.toVO(product), false));
     }
 
-    public ProductVO getProduct(String productCode) throws InvalidProductCodeException {
-        Product product = getProductEntity(productCode);
+    public ProductVO getProduct(String productCode, Currencies currency) throws InvalidProductCodeException {
+        ProductVO productVO = productCache.getProduct(productCode)
+                .orElseThrow(InvalidProductCodeException::new);
+        return currency == null ? productVO : productMapper.toConvertedVO(productVO, currency, currencyService.getRateTable());
+    }
+
+    public ProductsPageVO getProducts(Long after, Integer limit, Currencies currency) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Product> productsFromDb = productRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0 : after,
+                PageRequest.of(0, pageSize + 1));
 
-        return productMapper.toVO(product);
+        RateTable rateTable = currency == null ? null : currencyService.getRateTable();
+        List<ProductVO> products = new ArrayList<>(Math.min(productsFromDb.size(), pageSize));
+        for (int i = 0; i < productsFromDb.size() && i < pageSize; i++) {
+            ProductVO productVO = productMapper.toVO(productsFromDb.get(i));
+            products.add(rateTable == null ? productVO : productMapper.toConvertedVO(productVO, currency, rateTable));
+        }
+
+        ProductsPageVO productsPage = new ProductsPageVO();
+        productsPage.setProducts(products);
+        if (productsFromDb.size() > pageSize) {
+            productsPage.setNextCursor(products.get(pageSize - 1).getId());
+        }
+        return productsPage;
     }
 
-    public List<ProductVO> getProducts() {
+    /**
+     * The last word of the query also matches as a prefix, of at most {@value InvertedIndex#MAX_PREFIX_EXPANSIONS}
+     * longer words in alphabetical order, so a short prefix can miss products whose words sort after those.
+     */
+    public List<ProductVO> searchProducts(String query, Integer limit, Currencies currency) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        RateTable rateTable = currency == null ? null : currencyService.getRateTable();
         List<ProductVO> products = new ArrayList<>();
-        Iterable<Product> productsFromDbIterable = productRepository.findAll();
-        for (Product product : productsFromDbIterable) {
-            ProductVO productVO = productMapper.toVO(product);
-            products.add(productVO);
+        for (String productCode : productSearchIndex.search(query, pageSize)) {
+            productCache.getProduct(productCode)
+                    .map(productVO -> rateTable == null ? productVO : productMapper.toConvertedVO(productVO, currency, rateTable))
+                    .ifPresent(products::add);
         }
-
         return products;
     }
 
-    public void updateProduct(ProductVO productVO, Long customerId) throws InvalidProductCodeException {
-        System.out.println("Customer with id" + customerId + " is in service for update");
+    /**
+     * Unlike {@link #searchProducts}, the prefix is not limited to {@value InvertedIndex#MAX_PREFIX_EXPANSIONS}
+     * expansions: every code starting with it is returned, up to the page size.
+     */
+    public List<String> suggestProductCodes(String prefix, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return productSearchIndex.suggestCodes(prefix, pageSize);
+    }
+
+    public FilteredProductsPageVO filterProducts(ProductFilterVO filter) {
+        int pageSize = filter.getLimit() == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(filter.getLimit(), MAX_PAGE_SIZE));
+        FacetIndex.Result result = productSearchIndex.filter(filter, pageSize);
+
+        List<Long> productsIds = new ArrayList<>(result.getProductIds().length);
+        for (long productId : result.getProductIds()) {
+            productsIds.add(productId);
+        }
+        Map<Long, ProductVO> productsById = new HashMap<>();
+        for (Product product : productRepository.findAllById(productsIds)) {
+            productsById.put(product.getId(), productMapper.toVO(product));
+        }
+        List<ProductVO> products = new ArrayList<>(productsIds.size());
+        for (Long productId : productsIds) {
+            if (productsById.containsKey(productId)) {
+                products.add(productsById.get(productId));
+            }
+        }
+
+        FilteredProductsPageVO productsPage = new FilteredProductsPageVO();
+        productsPage.setProducts(products);
+        productsPage.setNextCursor(result.getNextCursor());
+        productsPage.setTotal(result.getTotal());
+        Map<Currencies, Integer> currencyCounts = new EnumMap<>(Currencies.class);
+        for (Currencies currency : Currencies.values()) {
+            currencyCounts.put(currency, result.getCurrencyCounts()[currency.ordinal()]);
+        }
+        productsPage.setCurrencyCounts(currencyCounts);
+        productsPage.setPriceBuckets(toPriceBuckets(productSearchIndex.getPriceBucketEdges(), result.getPriceBucketCounts()));
+        return productsPage;
+    }
+
+    @Transactional
+    @RetryOnOptimisticLock
+    @RequiresRole({ADMIN, EDITOR})
+    public void updateProduct(ProductVO productVO, @CustomerId Long customerId) throws InvalidProductCodeException {
         verifyProductCode(productVO.getCode());
 
         Product product = getProductEntity(productVO.getCode());
@@ -53,27 +153,44 @@ public class ProductService {
         product.setCurrency(productVO.getCurrency());
         product.setStock(productVO.getStock());
 
-        productRepository.save(product);
+        // a conflicting version fails here, before the stock ledger is touched, and the whole update is retried
+        productRepository.saveAndFlush(product);
+        stockService.stockSet(product.getId(), product.getStock());
+        eventPublisher.publishEvent(new ProductChangedEvent(productMapper.toVO(product), false));
     }
 
     @Transactional
-    public void addStock(String productCode, Integer quantity, Long customerId) throws InvalidProductCodeException {
-        System.out.println("User with id: " + customerId + "is adding stock for " + productCode + ", " +
-                " number of items: " + quantity);
+    @RetryOnOptimisticLock
+    @RequiresRole(ADMIN)
+    public void addStock(String productCode, Integer quantity, @CustomerId Long customerId) throws InvalidProductCodeException {
         verifyProductCode(productCode);
         Product product = getProductEntity(productCode);
 
         int oldStock = product.getStock();
         product.setStock(oldStock + quantity);
-
+        stockService.stockAdded(product.getId(), quantity);
     }
 
-    public void deleteProduct(String productCode, Long customerId) throws InvalidProductCodeException {
-        System.out.println("User with id: " + customerId + "is deleting " + productCode);
+    @RequiresRole(ADMIN)
+    public void deleteProduct(String productCode, @CustomerId Long customerId) throws InvalidProductCodeException {
         verifyProductCode(productCode);
 
         Product product = getProductEntity(productCode);
         productRepository.delete(product);
+        stockService.productRemoved(product.getId());
+        eventPublisher.publishEvent(new ProductChangedEvent(productMapper.toVO(product), true));
+    }
+
+    private List<PriceBucketVO> toPriceBuckets(double[] priceBucketEdges, int[] priceBucketCounts) {
+        List<PriceBucketVO> priceBuckets = new ArrayList<>(priceBucketCounts.length);
+        for (int i = 0; i < priceBucketCounts.length; i++) {
+            PriceBucketVO priceBucket = new PriceBucketVO();
+            priceBucket.setFrom(i == 0 ? null : priceBucketEdges[i - 1]);
+            priceBucket.setTo(i == priceBucketEdges.length ? null : priceBucketEdges[i]);
+            priceBucket.setCount(priceBucketCounts[i]);
+            priceBuckets.add(priceBucket);
+        }
+        return priceBuckets;
     }
 
     private void verifyProductCode(String productCode) throws InvalidProductCodeException {
@@ -0,0 +1,155 @@
+package com.practice.onlineShop.services;
+
+import com.practice.onlineShop.exceptions.NotEnoughStockException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.practice.onlineShop.utils.TransactionUtils.afterCommit;
+
+/**
+ * Serves stock checks and reservations from in-memory counters instead of the product rows.
+ * Every reservation is journaled in stock_movement inside the order's transaction, and the journal is
+ * periodically folded into product.stock, so a crash loses nothing: the next startup replays the journal
+ * before rebuilding the counters.
+ */
+@Component
+@ConditionalOnProperty(name = "online-shop.stock-ledger.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class StockLedger implements SmartInitializingSingleton {
+    private static final String JOURNAL_SQL = "INSERT INTO stock_movement (product_id, quantity) VALUES (?, ?)";
+    private static final String SELECT_JOURNAL_SQL = "SELECT id, product_id, quantity FROM stock_movement ORDER BY id LIMIT ?";
+    private static final String APPLY_JOURNAL_SQL = "UPDATE product SET stock = stock + ?, version = version + 1 WHERE id = ?";
+    private static final String DELETE_JOURNAL_SQL = "DELETE FROM stock_movement WHERE id = ?";
+    private static final int FLUSH_BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<Long, AtomicInteger> availableStock = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicInteger> unflushedStock = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        flushAll();
+        jdbcTemplate.query("SELECT id, stock FROM product", resultSet -> {
+            availableStock.put(resultSet.getLong("id"), new AtomicInteger(resultSet.getInt("stock")));
+        });
+    }
+
+    public void reserve(Map<Long, Integer> productsIdsToQuantity) throws NotEnoughStockException {
+        Map<Long, Integer> reserved = new TreeMap<>();
+        for (Map.Entry<Long, Integer> productIdToQuantity : productsIdsToQuantity.entrySet()) {
+            if (!tryDecrement(productIdToQuantity.getKey(), productIdToQuantity.getValue())) {
+                reserved.forEach(this::increment);
+                throw new NotEnoughStockException();
+            }
+            reserved.put(productIdToQuantity.getKey(), productIdToQuantity.getValue());
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reserved.forEach((productId, quantity) -> unflushed(productId).addAndGet(-quantity));
+                } else {
+                    reserved.forEach(StockLedger.this::increment);
+                }
+            }
+        });
+
+        List<Object[]> journalArgs = new ArrayList<>();
+        reserved.forEach((productId, quantity) -> journalArgs.add(new Object[]{productId, -quantity}));
+        jdbcTemplate.batchUpdate(JOURNAL_SQL, journalArgs);
+    }
+
+    public void stockAdded(long productId, int quantity) {
+        afterCommit(() -> increment(productId, quantity));
+    }
+
+    public void stockSet(long productId, int stock) {
+        afterCommit(() -> available(productId).set(stock + unflushed(productId).get()));
+    }
+
+    public void productRemoved(long productId) {
+        afterCommit(() -> {
+            availableStock.remove(productId);
+            unflushedStock.remove(productId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${online-shop.stock-ledger.flush-interval:1000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        int flushedMovements;
+        do {
+            flushedMovements = flush();
+        } while (flushedMovements == FLUSH_BATCH_SIZE);
+    }
+
+    private int flush() {
+        Map<Long, Integer> flushedDeltas = new TreeMap<>();
+        Integer flushedMovements = transactionTemplate.execute(status -> {
+            List<Object[]> movementIds = new ArrayList<>();
+            jdbcTemplate.query(SELECT_JOURNAL_SQL, resultSet -> {
+                movementIds.add(new Object[]{resultSet.getLong("id")});
+                flushedDeltas.merge(resultSet.getLong("product_id"), resultSet.getInt("quantity"), Integer::sum);
+            }, FLUSH_BATCH_SIZE);
+            if (movementIds.isEmpty()) {
+                return 0;
+            }
+
+            List<Object[]> applyArgs = new ArrayList<>();
+            flushedDeltas.forEach((productId, delta) -> applyArgs.add(new Object[]{delta, productId}));
+            jdbcTemplate.batchUpdate(APPLY_JOURNAL_SQL, applyArgs);
+            jdbcTemplate.batchUpdate(DELETE_JOURNAL_SQL, movementIds);
+            return movementIds.size();
+        });
+        flushedDeltas.forEach((productId, delta) -> unflushed(productId).addAndGet(-delta));
+        return flushedMovements == null ? 0 : flushedMovements;
+    }
+
+    private boolean tryDecrement(long productId, int quantity) {
+        AtomicInteger stock = availableStock.get(productId);
+        if (stock == null) {
+            return false;
+        }
+        while (true) {
+            int currentStock = stock.get();
+            if (currentStock < quantity) {
+                return false;
+            }
+            if (stock.compareAndSet(currentStock, currentStock - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private void increment(long productId, int quantity) {
+        available(productId).addAndGet(quantity);
+    }
+
+    private AtomicInteger available(long productId) {
+        return availableStock.computeIfAbsent(productId, id -> new AtomicInteger());
+    }
+
+    private AtomicInteger unflushed(long productId) {
+        return unflushedStock.computeIfAbsent(productId, id -> new AtomicInteger());
+    }
+}
@@ -1,17 +1,183 @@
 package com.practice.onlineShop.services;
 
-import com.practice.onlineShop.entities.Product;
-import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.events.ProductStock;
+import com.practice.onlineShop.events.StockChangedEvent;
+import com.practice.onlineShop.exceptions.NotEnoughStockException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
 public class StockService {
-    private final ProductRepository productRepository;
+    private static final String LOCK_STOCK_SQL = "SELECT id, stock FROM product WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    private static final String RESERVE_STOCK_SQL = "UPDATE product SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ?";
+    private static final String RESTOCK_SQL = "UPDATE product SET stock = stock + ?, version = version + 1 WHERE id = ?";
+    private static final String UPDATED_STOCK_SQL = "SELECT id, stock, version FROM product WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Optional<StockLedger> stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserveStock(Map<Integer, Integer> productsIdsToQuantity) throws NotEnoughStockException {
+        Map<Long, Integer> stockDeltas = new TreeMap<>();
+        productsIdsToQuantity.forEach((productId, quantity) -> stockDeltas.put(productId.longValue(), -quantity));
+
+        if (stockLedger.isPresent()) {
+            Map<Long, Integer> ledgerReservation = new TreeMap<>();
+            productsIdsToQuantity.forEach((productId, quantity) -> ledgerReservation.put(productId.longValue(), quantity));
+            try {
+                stockLedger.get().reserve(ledgerReservation);
+            } catch (NotEnoughStockException e) {
+                countReservation(false);
+                throw e;
+            }
+            countReservation(true);
+            eventPublisher.publishEvent(new StockChangedEvent(stockDeltas));
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>();
+        // rows are locked in id order so that two orders sharing products can not deadlock
+        for (Map.Entry<Integer, Integer> productIdToQuantity : new TreeMap<>(productsIdsToQuantity).entrySet()) {
+            Integer quantity = productIdToQuantity.getValue();
+            batchArgs.add(new Object[]{quantity, productIdToQuantity.getKey(), quantity});
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(RESERVE_STOCK_SQL, batchArgs);
+        for (int updatedRow : updatedRows) {
+            if (updatedRow == 0) {
+                countReservation(false);
+                throw new NotEnoughStockException();
+            }
+        }
+        countReservation(true);
+        eventPublisher.publishEvent(new StockChangedEvent(stockDeltas, readUpdatedStock(stockDeltas.keySet())));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean[] reserveStock(List<Map<Integer, Integer>> ordersProductsIdsToQuantity) {
+        boolean[] reserved = new boolean[ordersProductsIdsToQuantity.size()];
+        Map<Long, Integer> reservedQuantities = new TreeMap<>();
+
+        if (stockLedger.isPresent()) {
+            for (int i = 0; i < reserved.length; i++) {
+                Map<Long, Integer> ledgerReservation = new TreeMap<>();
+                ordersProductsIdsToQuantity.get(i).forEach((productId, quantity) -> ledgerReservation.put(productId.longValue(), quantity));
+                try {
+                    stockLedger.get().reserve(ledgerReservation);
+                } catch (NotEnoughStockException e) {
+                    continue;
+                }
+                reserved[i] = true;
+                ledgerReservation.forEach((productId, quantity) -> reservedQuantities.merge(productId, quantity, Integer::sum));
+            }
+        } else {
+            Map<Long, Integer> availableStock = lockStock(ordersProductsIdsToQuantity);
+            for (int i = 0; i < reserved.length; i++) {
+                Map<Integer, Integer> productsIdsToQuantity = ordersProductsIdsToQuantity.get(i);
+                reserved[i] = productsIdsToQuantity.entrySet().stream()
+                        .allMatch(entry -> availableStock.getOrDefault(entry.getKey().longValue(), 0) >= entry.getValue());
+                if (reserved[i]) {
+                    productsIdsToQuantity.forEach((productId, quantity) -> {
+                        availableStock.merge(productId.longValue(), -quantity, Integer::sum);
+                        reservedQuantities.merge(productId.longValue(), quantity, Integer::sum);
+                    });
+                }
+            }
+
+            List<Object[]> batchArgs = new ArrayList<>();
+            reservedQuantities.forEach((productId, quantity) -> batchArgs.add(new Object[]{quantity, productId, quantity}));
+            for (int updatedRow : jdbcTemplate.batchUpdate(RESERVE_STOCK_SQL, batchArgs)) {
+                if (updatedRow == 0) {
+                    throw new IllegalStateException("Stock changed on a locked product row");
+                }
+            }
+        }
+
+        for (boolean orderReserved : reserved) {
+            countReservation(orderReserved);
+        }
+        if (!reservedQuantities.isEmpty()) {
+            Map<Long, Integer> stockDeltas = new TreeMap<>();
+            reservedQuantities.forEach((productId, quantity) -> stockDeltas.put(productId, -quantity));
+            eventPublisher.publishEvent(stockLedger.isPresent() ? new StockChangedEvent(stockDeltas)
+                    : new StockChangedEvent(stockDeltas, readUpdatedStock(stockDeltas.keySet())));
+        }
+        return reserved;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restock(Map<Long, Integer> productsIdsToQuantity) {
+        Map<Long, Integer> sortedProductsIdsToQuantity = new TreeMap<>(productsIdsToQuantity);
+        List<Object[]> batchArgs = new ArrayList<>();
+        sortedProductsIdsToQuantity.forEach((productId, quantity) -> batchArgs.add(new Object[]{quantity, productId}));
+        jdbcTemplate.batchUpdate(RESTOCK_SQL, batchArgs);
+
+        stockLedger.ifPresent(ledger -> sortedProductsIdsToQuantity.forEach(ledger::stockAdded));
+        eventPublisher.publishEvent(new StockChangedEvent(sortedProductsIdsToQuantity, readUpdatedStock(sortedProductsIdsToQuantity.keySet())));
+    }
+
+    public void stockAdded(long productId, int quantity) {
+        stockLedger.ifPresent(ledger -> ledger.stockAdded(productId, quantity));
+        eventPublisher.publishEvent(new StockChangedEvent(Collections.singletonMap(productId, quantity)));
+    }
+
+    public void stockSet(long productId, int stock) {
+        stockLedger.ifPresent(ledger -> ledger.stockSet(productId, stock));
+    }
+
+    public void productRemoved(long productId) {
+        stockLedger.ifPresent(ledger -> ledger.productRemoved(productId));
+    }
+
+    private void countReservation(boolean reserved) {
+        meterRegistry.counter("online-shop.stock.reservations", "outcome", reserved ? "reserved" : "rejected").increment();
+    }
+
+    // the updated rows stay locked until the transaction ends, so this is the stock and version it commits
+    private Map<Long, ProductStock> readUpdatedStock(Collection<Long> productsIds) {
+        Map<Long, ProductStock> productsIdsToStock = new HashMap<>();
+        if (productsIds.isEmpty()) {
+            return productsIdsToStock;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(productsIds.size(), "?"));
+        jdbcTemplate.query(String.format(UPDATED_STOCK_SQL, placeholders), resultSet -> {
+            productsIdsToStock.put(resultSet.getLong("id"), new ProductStock(resultSet.getInt("stock"), resultSet.getLong("version")));
+        }, productsIds.toArray());
+        return productsIdsToStock;
+    }
+
+    private Map<Long, Integer> lockStock(List<Map<Integer, Integer>> ordersProductsIdsToQuantity) {
+        TreeSet<Long> productsIds = new TreeSet<>();
+        ordersProductsIdsToQuantity.forEach(productsIdsToQuantity ->
+                productsIdsToQuantity.keySet().forEach(productId -> productsIds.add(productId.longValue())));
 
-    public boolean isHavingEnoughStock(Integer productId, Integer quantity){
-        Product product = productRepository.findById(productId.longValue()).get();
-        return product.getStock() >= quantity;
+        Map<Long, Integer> availableStock = new HashMap<>();
+        if (productsIds.isEmpty()) {
+            return availableStock;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(productsIds.size(), "?"));
+        // the rows stay locked until the batch commits, so the stock read here is what the updates will find
+        jdbcTemplate.query(String.format(LOCK_STOCK_SQL, placeholders), resultSet -> {
+            availableStock.put(resultSet.getLong("id"), resultSet.getInt("stock"));
+        }, productsIds.toArray());
+        return availableStock;
     }
 }
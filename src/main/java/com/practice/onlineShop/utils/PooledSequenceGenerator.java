@@ -0,0 +1,25 @@
+package com.practice.onlineShop.utils;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE_SETTING = "online-shop.id.allocation-size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        params.putIfAbsent(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.putIfAbsent(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
 
 import static com.practice.onlineShop.enums.Currencies.RON;
+import static com.practice.onlineShop.enums.OrderStatus.CANCELED;
+import static com.practice.onlineShop.enums.OrderStatus.DELIVERED;
 
 @Component
 @RequiredArgsConstructor
@@ -54,6 +56,18 @@ public class UtilsComponent {
         return product;
     }
 
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Product saveProduct(String code, int stock) {
+        Product product = new Product();
+        product.setCode(code);
+        product.setCurrency(RON);
+        product.setPrice(10);
+        product.setStock(stock);
+        product.setDescription("a description");
+        product.setValid(true);
+        return productRepository.save(product);
+    }
+
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Product storeTwoProductsInDatabase(String code1, String code2) {
         Product product = generateProduct(code1);
@@ -69,7 +83,7 @@ public class UtilsComponent {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Orders saveDeliveredOrder(User client, Product product) {
         Orders orderWithProducts = generateOrderItems(product, client);
-        orderWithProducts.setDelivered(true);
+        orderWithProducts.setStatus(DELIVERED);
         orderRepository.save(orderWithProducts);
         return orderWithProducts;
     }
@@ -82,10 +96,9 @@ public class UtilsComponent {
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public Orders saveCanceledAndDeliveredOrder(User client, Product product) {
+    public Orders saveCanceledOrder(User client, Product product) {
         Orders orderWithProducts = generateOrderItems(product, client);
-        orderWithProducts.setCanceled(true);
-        orderWithProducts.setDelivered(true);
+        orderWithProducts.setStatus(CANCELED);
         orderRepository.save(orderWithProducts);
         return orderWithProducts;
     }
@@ -95,6 +108,7 @@ public class UtilsComponent {
         order.setUser(user);
         List<OrderItem> orderItems = new ArrayList<>();
         OrderItem orderItem = generateOrderItem(product);
+        orderItem.setOrder(order);
         orderItems.add(orderItem);
         order.setOrderItems(orderItems);
         return order;
@@ -107,11 +121,13 @@ public class UtilsComponent {
         return orderItem;
     }
 
-    public OrderVO createOrderVO(User user, Product product) {
+    public OrderVO createOrderVO(User user, Product... products) {
         OrderVO orderVO = new OrderVO();
         orderVO.setUserId((int) user.getId());
         Map<Integer, Integer> orderMap = new HashMap<>();
-        orderMap.put((int) product.getId(), 1);
+        for (Product product : products) {
+            orderMap.put((int) product.getId(), 1);
+        }
         orderVO.setProductsIdsToQuantity(orderMap);
         return orderVO;
     }
@@ -0,0 +1,16 @@
+package com.practice.onlineShop.vos;
+
+import com.practice.onlineShop.enums.Currencies;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class FilteredProductsPageVO {
+    private List<ProductVO> products;
+    private Long nextCursor;
+    private int total;
+    private Map<Currencies, Integer> currencyCounts;
+    private List<PriceBucketVO> priceBuckets;
+}
@@ -0,0 +1,14 @@
+package com.practice.onlineShop.vos;
+
+import com.practice.onlineShop.enums.Currencies;
+import lombok.Data;
+
+@Data
+public class OrderItemVO {
+    private long productId;
+    private String productCode;
+    private int quantity;
+    private long unitPrice;
+    private Currencies currency;
+    private long lineTotal;
+}
@@ -0,0 +1,10 @@
+package com.practice.onlineShop.vos;
+
+import lombok.Data;
+
+@Data
+public class OrderResultVO {
+    private int index;
+    private Long orderId;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.practice.onlineShop.vos;
+
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.enums.OrderStatus;
+import lombok.Data;
+
+@Data
+public class OrderSummaryVO {
+    private long id;
+    private long userId;
+    private OrderStatus status;
+    private long total;
+    private Currencies currency;
+}
@@ -1,5 +1,6 @@
 package com.practice.onlineShop.vos;
 
+import com.practice.onlineShop.enums.Currencies;
 import lombok.Data;
 
 import java.util.Map;
@@ -8,4 +9,5 @@ import java.util.Map;
 public class OrderVO {
     private Integer userId;
     private Map<Integer, Integer> productsIdsToQuantity;
+    private Currencies currency;
 }
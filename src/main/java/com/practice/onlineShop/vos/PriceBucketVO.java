@@ -0,0 +1,10 @@
+package com.practice.onlineShop.vos;
+
+import lombok.Data;
+
+@Data
+public class PriceBucketVO {
+    private Double from;
+    private Double to;
+    private int count;
+}
@@ -0,0 +1,17 @@
+package com.practice.onlineShop.vos;
+
+import com.practice.onlineShop.enums.Currencies;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductFilterVO {
+    private List<Currencies> currency;
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean inStock;
+    private Boolean valid;
+    private Long after;
+    private Integer limit;
+}
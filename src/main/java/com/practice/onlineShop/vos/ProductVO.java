@@ -1,5 +1,6 @@
 package com.practice.onlineShop.vos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.practice.onlineShop.enums.Currencies;
 import lombok.Data;
 
@@ -12,4 +13,10 @@ public class ProductVO {
     private Currencies currency;
     private int stock;
     private boolean valid;
+    private long version;
+    // only set when a currency is asked for, in minor units of that currency
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long convertedPrice;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Currencies convertedCurrency;
 }
@@ -0,0 +1,63 @@
+package com.practice.onlineShop.aspects;
+
+import com.practice.onlineShop.annotations.RetryOnOptimisticLock;
+import com.practice.onlineShop.entities.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticLockRetryAspectTest {
+
+    static class ConflictingService {
+        private int conflictsLeft;
+        private int calls;
+
+        @RetryOnOptimisticLock(maxAttempts = 3, backoffMillis = 1)
+        public int addStock() {
+            calls++;
+            if (conflictsLeft-- > 0) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, 7L);
+            }
+            return calls;
+        }
+    }
+
+    private MeterRegistry meterRegistry;
+    private ConflictingService target;
+    private ConflictingService conflictingService;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new ConflictingService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new OptimisticLockRetryAspect(meterRegistry));
+        conflictingService = proxyFactory.getProxy();
+    }
+
+    @Test
+    public void retry_whenConflictIsTransient_shouldReExecuteTheMethod() {
+        target.conflictsLeft = 2;
+
+        assertThat(conflictingService.addStock()).isEqualTo(3);
+        assertThat(meterRegistry.get("optimistic.lock.conflicts")
+                .tags("method", "ConflictingService.addStock", "entity", "Product").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("optimistic.lock.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void retry_whenAttemptsAreExhausted_shouldRethrowTheConflict() {
+        target.conflictsLeft = 5;
+
+        assertThatThrownBy(() -> conflictingService.addStock()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(target.calls).isEqualTo(3);
+        assertThat(meterRegistry.get("optimistic.lock.conflicts").counter().count()).isEqualTo(3);
+    }
+}
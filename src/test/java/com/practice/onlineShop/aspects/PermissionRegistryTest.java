@@ -0,0 +1,47 @@
+package com.practice.onlineShop.aspects;
+
+import com.practice.onlineShop.annotations.CustomerId;
+import com.practice.onlineShop.annotations.RequiresRole;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static com.practice.onlineShop.enums.Roles.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PermissionRegistryTest {
+
+    static class ProtectedService {
+        @RequiresRole({ADMIN, EDITOR})
+        public void update(String code, @CustomerId Long customerId) {
+        }
+    }
+
+    static class MisconfiguredService {
+        @RequiresRole(CLIENT)
+        public void withoutCustomerId(Long customerId) {
+        }
+    }
+
+    private final PermissionRegistry permissionRegistry = new PermissionRegistry();
+
+    @Test
+    public void getPermission_whenMethodIsAnnotated_shouldPrecomputeTheMaskAndTheCustomerIdIndex() throws Exception {
+        permissionRegistry.postProcessBeforeInitialization(new ProtectedService(), "protectedService");
+        Method update = ProtectedService.class.getMethod("update", String.class, Long.class);
+
+        PermissionRegistry.Permission permission = permissionRegistry.getPermission(update);
+
+        assertThat(permission.getCustomerIdIndex()).isEqualTo(1);
+        assertThat(permission.getAllowedRolesMask() & ADMIN.mask()).isNotZero();
+        assertThat(permission.getAllowedRolesMask() & EDITOR.mask()).isNotZero();
+        assertThat(permission.getAllowedRolesMask() & CLIENT.mask()).isZero();
+    }
+
+    @Test
+    public void postProcessBeforeInitialization_whenCustomerIdIsNotAnnotated_shouldFailAtStartup() {
+        assertThatThrownBy(() -> permissionRegistry.postProcessBeforeInitialization(new MisconfiguredService(), "misconfiguredService"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.practice.onlineShop.caches;
+
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.services.ProductService;
+import com.practice.onlineShop.services.StockService;
+import com.practice.onlineShop.utils.UtilsComponent;
+import com.practice.onlineShop.vos.ProductVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+
+import static com.practice.onlineShop.enums.Roles.ADMIN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductCacheIntegrationTest {
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private UtilsComponent utilsComponent;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void getProduct_whenRequestedTwice_shouldServeTheSecondCallFromTheCache() {
+        utilsComponent.saveProduct("cachedProduct", 10);
+        double hitsBefore = productCacheHits();
+
+        assertThat(productCache.getProduct("cachedProduct")).isPresent();
+        assertThat(productCache.getProduct("cachedProduct")).isPresent();
+
+        assertThat(productCacheHits() - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    public void getProduct_whenStockIsAdded_shouldReturnTheNewStock() throws Exception {
+        utilsComponent.saveProduct("restockedProduct", 10);
+        User admin = utilsComponent.saveUserWithRole(ADMIN);
+        assertThat(productCache.getProduct("restockedProduct").get().getStock()).isEqualTo(10);
+
+        productService.addStock("restockedProduct", 5, admin.getId());
+
+        assertThat(productCache.getProduct("restockedProduct").get().getStock()).isEqualTo(15);
+    }
+
+    @Test
+    public void getProduct_whenStockIsReserved_shouldReturnTheNewStock() {
+        Product product = utilsComponent.saveProduct("reservedProduct", 10);
+        assertThat(productCache.getProduct("reservedProduct").get().getStock()).isEqualTo(10);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                stockService.reserveStock(Collections.singletonMap((int) product.getId(), 3));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        double hitsBefore = productCacheHits();
+        assertThat(productCache.getProduct("reservedProduct").get().getStock()).isEqualTo(7);
+        assertThat(productCacheHits() - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    public void getProduct_whenCachedProductMissedAnUpdate_shouldReloadItAfterTheNextReservation() {
+        Product product = utilsComponent.saveProduct("staleProduct", 10);
+        assertThat(productCache.getProduct("staleProduct").get().getVersion()).isEqualTo(0);
+        jdbcTemplate.update("UPDATE product SET stock = stock + 5, version = version + 1 WHERE id = ?", product.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                stockService.reserveStock(Collections.singletonMap((int) product.getId(), 3));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        double hitsBefore = productCacheHits();
+        ProductVO productVO = productCache.getProduct("staleProduct").get();
+        assertThat(productVO.getStock()).isEqualTo(12);
+        assertThat(productVO.getVersion()).isEqualTo(2);
+        assertThat(productCacheHits() - hitsBefore).isZero();
+    }
+
+    @Test
+    public void getProduct_whenProductIsDeleted_shouldNotServeItAnymore() throws Exception {
+        utilsComponent.saveProduct("deletedProduct", 10);
+        User admin = utilsComponent.saveUserWithRole(ADMIN);
+        assertThat(productCache.getProduct("deletedProduct")).isPresent();
+
+        productService.deleteProduct("deletedProduct", admin.getId());
+
+        assertThat(productCache.getProduct("deletedProduct")).isNotPresent();
+    }
+
+    @Test
+    public void getProduct_whenProductIsNotInDb_shouldNotCacheTheMiss() {
+        assertThat(productCache.getProduct("missingProduct")).isNotPresent();
+        utilsComponent.saveProduct("missingProduct", 1);
+        assertThat(productCache.getProduct("missingProduct")).isPresent();
+    }
+
+    private double productCacheHits() {
+        return meterRegistry.get("cache.gets").tags("cache", "products", "result", "hit").functionCounter().count();
+    }
+}
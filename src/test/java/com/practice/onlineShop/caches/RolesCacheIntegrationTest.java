@@ -0,0 +1,62 @@
+package com.practice.onlineShop.caches;
+
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.repositories.UserRepository;
+import com.practice.onlineShop.utils.UtilsComponent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static com.practice.onlineShop.enums.Roles.CLIENT;
+import static com.practice.onlineShop.enums.Roles.EXPEDITOR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RolesCacheIntegrationTest {
+
+    @Autowired
+    private RolesCache rolesCache;
+
+    @Autowired
+    private UtilsComponent utilsComponent;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void getRolesMask_whenRequestedTwice_shouldServeTheSecondCallFromTheCache() {
+        User user = utilsComponent.saveUserWithRole(CLIENT);
+        double hitsBefore = meterRegistry.get("cache.gets").tags("cache", "roles", "result", "hit").functionCounter().count();
+
+        rolesCache.getRolesMask(user.getId());
+        assertThat(rolesCache.getRolesMask(user.getId())).hasValue(CLIENT.mask());
+
+        double hitsAfter = meterRegistry.get("cache.gets").tags("cache", "roles", "result", "hit").functionCounter().count();
+        assertThat(hitsAfter - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    public void getRolesMask_whenUserRolesChange_shouldReturnTheNewRoles() {
+        User user = utilsComponent.saveUserWithRole(CLIENT);
+        assertThat(rolesCache.getRolesMask(user.getId())).hasValue(CLIENT.mask());
+
+        User userFromDb = userRepository.findWithRolesById(user.getId()).get();
+        userFromDb.setRoles(new ArrayList<>(Collections.singletonList(EXPEDITOR)));
+        userRepository.save(userFromDb);
+
+        assertThat(rolesCache.getRolesMask(user.getId())).hasValue(EXPEDITOR.mask());
+    }
+
+    @Test
+    public void getRolesMask_whenUserIsNotInDb_shouldNotCacheTheMiss() {
+        assertThat(rolesCache.getRolesMask(987654L)).isEmpty();
+        assertThat(rolesCache.getRolesMask(null)).isEmpty();
+    }
+}
@@ -5,8 +5,13 @@ import com.practice.onlineShop.entities.Orders;
 import com.practice.onlineShop.entities.Product;
 import com.practice.onlineShop.entities.User;
 import com.practice.onlineShop.repositories.OrderRepository;
+import com.practice.onlineShop.repositories.ProductRepository;
 import com.practice.onlineShop.utils.UtilsComponent;
+import com.practice.onlineShop.vos.OrderDetailsVO;
+import com.practice.onlineShop.vos.OrderResultVO;
+import com.practice.onlineShop.vos.OrderSummaryVO;
 import com.practice.onlineShop.vos.OrderVO;
+import com.practice.onlineShop.vos.OrdersPageVO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -20,11 +25,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
+import static com.practice.onlineShop.enums.Currencies.EUR;
+import static com.practice.onlineShop.enums.Currencies.RON;
+import static com.practice.onlineShop.enums.OrderStatus.*;
 import static com.practice.onlineShop.enums.Roles.*;
 import static com.practice.onlineShop.utils.UtilsComponent.LOCALHOST;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -59,6 +67,9 @@ class OrderControllerIntegrationTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
     @Test
     @Transactional
     public void addOrder_whenOrderIsValid_shouldAddItToDB() {
@@ -119,7 +130,7 @@ class OrderControllerIntegrationTest {
 
         Orders orderFromDb = orderRepository.findById(orderWitsProducts.getId()).get();
 
-        assertThat(orderFromDb.isDelivered()).isTrue();
+        assertThat(orderFromDb.getStatus()).isEqualTo(DELIVERED);
     }
 
     @Test
@@ -169,7 +180,7 @@ class OrderControllerIntegrationTest {
         Product product = utilsComponent.storeTwoProductsInDatabase("code1ForExpeditorForCanceledOrder", "code2ForExpeditorForCanceledOrder2");
 
         Orders orderWitsProducts = utilsComponent.generateOrderItems(product, client);
-        orderWitsProducts.setCanceled(true);
+        orderWitsProducts.setStatus(CANCELED);
         orderRepository.save(orderWitsProducts);
 
         try {
@@ -192,7 +203,7 @@ class OrderControllerIntegrationTest {
 
         Orders orderFromDb = orderRepository.findById(orderWithProducts.getId()).get();
 
-        assertThat(orderFromDb.isCanceled()).isTrue();
+        assertThat(orderFromDb.getStatus()).isEqualTo(CANCELED);
     }
 
     @Test
@@ -200,7 +211,7 @@ class OrderControllerIntegrationTest {
         User client = utilsComponent.saveUserWithRole(CLIENT);
         Product product = utilsComponent.storeTwoProductsInDatabase("productForCanceledSentOrder1", "productForCanceledSentOrder2");
         Orders orderWithProducts = utilsComponent.generateOrderItems(product, client);
-        orderWithProducts.setDelivered(true);
+        orderWithProducts.setStatus(DELIVERED);
         orderRepository.save(orderWithProducts);
 
         try {
@@ -255,11 +266,27 @@ class OrderControllerIntegrationTest {
 
         Orders orderFromDb = orderRepository.findById(orderWithProducts.getId()).get();
 
-        assertThat(orderFromDb.isReturned()).isTrue();
+        assertThat(orderFromDb.getStatus()).isEqualTo(RETURNED);
         assertThat(orderFromDb.getOrderItems().get(0).getProduct().getStock()).isEqualTo(product.getStock() + orderWithProducts.getOrderItems().get(0).getQuantity());
     }
 
 
+    @Test
+    public void return_whenOrderIsAlreadyReturned_shouldThrowExceptionAndNotRestockTwice() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        Product product = utilsComponent.saveProduct("productForDoubleReturn", 5);
+        Orders orderWithProducts = utilsComponent.saveDeliveredOrder(client, product);
+
+        restTemplateForPatch.exchange(LOCALHOST + port + "/order/return/" + orderWithProducts.getId() + "/" + client.getId(),
+                PATCH, EMPTY, Void.class);
+        ResponseEntity<String> secondReturn = testRestTemplate.exchange(LOCALHOST + port + "/order/return/" + orderWithProducts.getId() + "/" + client.getId(),
+                PATCH, EMPTY, String.class);
+
+        assertThat(secondReturn.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(secondReturn.getBody()).isEqualTo("Comanda a fost deja returnata!");
+        assertThat(productRepository.findByCode("productForDoubleReturn").get().getStock()).isEqualTo(6);
+    }
+
     @Test
     public void return_whenOrderIsNOTDelivered_shouldThrowException() {
         User client = utilsComponent.saveUserWithRole(CLIENT);
@@ -278,7 +305,7 @@ class OrderControllerIntegrationTest {
     public void return_whenOrderIsCanceled_shouldThrowException() {
         User client = utilsComponent.saveUserWithRole(CLIENT);
         Product product = utilsComponent.storeTwoProductsInDatabase("productForReturn11ForCanceledOrder", "productForReturn22ForCanceledOrder");
-        Orders orderWithProducts = utilsComponent.saveCanceledAndDeliveredOrder(client, product);
+        Orders orderWithProducts = utilsComponent.saveCanceledOrder(client, product);
 
         try {
             restTemplateForPatch.exchange(LOCALHOST + port + "/order/return/" + orderWithProducts.getId() + "/" + client.getId(),
@@ -316,4 +343,161 @@ class OrderControllerIntegrationTest {
         }
     }
 
+    @Test
+    public void addOrders_whenBatchMixesValidAndInvalidOrders_shouldReportEveryOrder() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        User admin = utilsComponent.saveUserWithRole(ADMIN);
+        Product product = utilsComponent.saveProduct("productForOrderBatch", 1);
+
+        OrderVO missingProductOrder = new OrderVO();
+        missingProductOrder.setUserId((int) client.getId());
+        missingProductOrder.setProductsIdsToQuantity(Collections.singletonMap(987654, 1));
+        List<OrderVO> orderVOs = Arrays.asList(
+                utilsComponent.createOrderVO(client, product),
+                utilsComponent.createOrderVO(client, product),
+                utilsComponent.createOrderVO(admin, product),
+                missingProductOrder);
+
+        OrderResultVO[] results = testRestTemplate.postForObject(LOCALHOST + port + "/order/batch", orderVOs, OrderResultVO[].class);
+
+        assertThat(results).extracting(OrderResultVO::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(results[0].getOrderId()).isNotNull();
+        assertThat(results[0].getError()).isNull();
+        assertThat(orderRepository.findById(results[0].getOrderId())).isPresent();
+        assertThat(results[1].getOrderId()).isNull();
+        assertThat(results[1].getError()).isEqualTo("Un produs nu a avut stock-ul necesar!");
+        assertThat(results[2].getError()).isEqualTo("Utilizatorul nu are permisiunea de a executa aceasta operatiune!");
+        assertThat(results[3].getError()).isEqualTo("Id-urile urmatoarelor produse nu sunt valide in comanda curenta: [987654]");
+        assertThat(productRepository.findByCode("productForOrderBatch").get().getStock()).isEqualTo(0);
+    }
+
+    @Test
+    public void getOrder_whenOrderExists_shouldReturnItWithItsItems() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        Product product = utilsComponent.saveProduct("productForOrderLookup", 5);
+        Orders order = utilsComponent.saveDeliveredOrder(client, product);
+
+        OrderDetailsVO orderDetails = testRestTemplate.getForObject(LOCALHOST + port + "/order/" + order.getId() + "/" + client.getId(), OrderDetailsVO.class);
+
+        assertThat(orderDetails.getId()).isEqualTo(order.getId());
+        assertThat(orderDetails.getUserId()).isEqualTo(client.getId());
+        assertThat(orderDetails.getStatus()).isEqualTo(DELIVERED);
+        assertThat(orderDetails.getItems()).hasSize(1);
+        assertThat(orderDetails.getItems().get(0).getProductCode()).isEqualTo("productForOrderLookup");
+        assertThat(orderDetails.getItems().get(0).getQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    public void addOrder_shouldSnapshotThePricesAndTheTotalAtCheckout() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        Product product = utilsComponent.saveProduct("productForPriceSnapshot", 5);
+        OrderVO orderVO = utilsComponent.createOrderVO(client, product);
+        orderVO.setProductsIdsToQuantity(Collections.singletonMap((int) product.getId(), 2));
+        orderVO.setCurrency(EUR);
+
+        testRestTemplate.postForEntity(LOCALHOST + port + "/order", orderVO, Void.class);
+        Product productAfterOrder = productRepository.findByCode("productForPriceSnapshot").get();
+        productAfterOrder.setPrice(99);
+        productRepository.save(productAfterOrder);
+        OrdersPageVO ordersPage = testRestTemplate.getForObject(LOCALHOST + port + "/order/user/" + client.getId() + "/" + client.getId(), OrdersPageVO.class);
+        OrderDetailsVO orderDetails = testRestTemplate.getForObject(LOCALHOST + port + "/order/" + ordersPage.getOrders().get(0).getId()
+                + "/" + client.getId(), OrderDetailsVO.class);
+
+        // 2 x 10 RON at 4.9750 RON per EUR
+        assertThat(ordersPage.getOrders().get(0).getTotal()).isEqualTo(402);
+        assertThat(orderDetails.getCurrency()).isEqualTo(EUR);
+        assertThat(orderDetails.getTotal()).isEqualTo(402);
+        assertThat(orderDetails.getItems().get(0).getUnitPrice()).isEqualTo(1000);
+        assertThat(orderDetails.getItems().get(0).getCurrency()).isEqualTo(RON);
+        assertThat(orderDetails.getItems().get(0).getLineTotal()).isEqualTo(2000);
+    }
+
+    @Test
+    public void getOrder_whenOrderIsNotInDb_shouldReturnErrorMessage() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity(LOCALHOST + port + "/order/987654321/" + client.getId(), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Id-ul comenzii nu este valid!");
+    }
+
+    @Test
+    public void getOrder_whenRequestIsMadeByAnotherClient_shouldNotReturnTheOrder() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        User anotherClient = utilsComponent.saveUserWithRole(CLIENT);
+        Product product = utilsComponent.saveProduct("productForForeignOrderLookup", 5);
+        Orders order = utilsComponent.saveDeliveredOrder(client, product);
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity(LOCALHOST + port + "/order/" + order.getId() + "/" + anotherClient.getId(), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Utilizatorul nu are permisiunea de a executa aceasta operatiune!");
+    }
+
+    @Test
+    public void getOrder_whenRequestIsMadeByAnExpeditor_shouldNotReturnTheOrder() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        User expeditor = utilsComponent.saveUserWithRole(EXPEDITOR);
+        Product product = utilsComponent.saveProduct("productForExpeditorOrderLookup", 5);
+        Orders order = utilsComponent.saveDeliveredOrder(client, product);
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity(LOCALHOST + port + "/order/" + order.getId() + "/" + expeditor.getId(), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Utilizatorul nu are permisiunea de a executa aceasta operatiune!");
+    }
+
+    @Test
+    public void getOrder_whenRequestIsMadeByAnAdmin_shouldReturnTheOrder() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        User admin = utilsComponent.saveUserWithRole(ADMIN);
+        Product product = utilsComponent.saveProduct("productForAdminOrderLookup", 5);
+        Orders order = utilsComponent.saveDeliveredOrder(client, product);
+
+        OrderDetailsVO orderDetails = testRestTemplate.getForObject(LOCALHOST + port + "/order/" + order.getId() + "/" + admin.getId(), OrderDetailsVO.class);
+
+        assertThat(orderDetails.getUserId()).isEqualTo(client.getId());
+    }
+
+    @Test
+    public void getUserOrders_whenRequestIsMadeByAnotherClient_shouldNotReturnTheHistory() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        User anotherClient = utilsComponent.saveUserWithRole(CLIENT);
+        Product product = utilsComponent.saveProduct("productForForeignOrderHistory", 5);
+        utilsComponent.saveOrder(client, product);
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity(LOCALHOST + port + "/order/user/" + client.getId() + "/" + anotherClient.getId(), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Utilizatorul nu are permisiunea de a executa aceasta operatiune!");
+    }
+
+    @Test
+    public void getUserOrders_whenCustomerIdIsUnknown_shouldNotReturnTheHistory() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity(LOCALHOST + port + "/order/user/" + client.getId() + "/987654321", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    @Test
+    public void getUserOrders_shouldPageThroughTheHistoryNewestFirst() {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        Product product = utilsComponent.saveProduct("productForOrderHistory", 5);
+        Orders firstOrder = utilsComponent.saveOrder(client, product);
+        Orders secondOrder = utilsComponent.saveDeliveredOrder(client, product);
+        Orders thirdOrder = utilsComponent.saveOrder(client, product);
+
+        OrdersPageVO firstPage = testRestTemplate.getForObject(LOCALHOST + port + "/order/user/" + client.getId() + "/" + client.getId() + "?limit=2", OrdersPageVO.class);
+        OrdersPageVO secondPage = testRestTemplate.getForObject(LOCALHOST + port + "/order/user/" + client.getId() + "/" + client.getId() + "?limit=2&cursor=" + firstPage.getNextCursor(), OrdersPageVO.class);
+        OrdersPageVO deliveredOrders = testRestTemplate.getForObject(LOCALHOST + port + "/order/user/" + client.getId() + "/" + client.getId() + "?status=DELIVERED", OrdersPageVO.class);
+
+        assertThat(firstPage.getOrders()).extracting(OrderSummaryVO::getId).containsExactly(thirdOrder.getId(), secondOrder.getId());
+        assertThat(firstPage.getNextCursor()).isEqualTo(secondOrder.getId());
+        assertThat(secondPage.getOrders()).extracting(OrderSummaryVO::getId).containsExactly(firstOrder.getId());
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(deliveredOrders.getOrders()).extracting(OrderSummaryVO::getId).containsExactly(secondOrder.getId());
+    }
 }
@@ -3,11 +3,14 @@ package com.practice.onlineShop.controllers;
 import com.practice.onlineShop.entities.Address;
 import com.practice.onlineShop.entities.Product;
 import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.enums.Currencies;
 import com.practice.onlineShop.enums.Roles;
 import com.practice.onlineShop.repositories.ProductRepository;
 import com.practice.onlineShop.repositories.UserRepository;
 import com.practice.onlineShop.utils.UtilsComponent;
+import com.practice.onlineShop.vos.FilteredProductsPageVO;
 import com.practice.onlineShop.vos.ProductVO;
+import com.practice.onlineShop.vos.ProductsPageVO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -15,22 +18,29 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import static com.practice.onlineShop.enums.Currencies.EUR;
 import static com.practice.onlineShop.enums.Currencies.RON;
+import static com.practice.onlineShop.enums.Currencies.USD;
 import static com.practice.onlineShop.enums.Roles.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.HttpEntity.EMPTY;
+import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.PATCH;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
 
 @SpringBootTest(webEnvironment = RANDOM_PORT)
 class ProductControllerIntegrationTest {
@@ -147,6 +157,69 @@ class ProductControllerIntegrationTest {
         assertThat(productResponse.getCode()).isEqualTo(product.getCode());
     }
 
+    @Test
+    public void getProductByCode_whenETagMatches_shouldReturnNotModified() {
+        Product product = generateProduct("aProductWithETag");
+        productRepository.save(product);
+
+        ResponseEntity<ProductVO> firstResponse = testRestTemplate.getForEntity(LOCALHOST + port + "/product/" + product.getCode(), ProductVO.class);
+        String eTag = firstResponse.getHeaders().getETag();
+        assertThat(eTag).isEqualTo("\"" + product.getId() + "-" + product.getVersion() + "\"");
+
+        ResponseEntity<String> secondResponse = testRestTemplate.exchange(LOCALHOST + port + "/product/" + product.getCode(),
+                GET, withIfNoneMatch(eTag), String.class);
+
+        assertThat(secondResponse.getStatusCode()).isEqualTo(NOT_MODIFIED);
+        assertThat(secondResponse.getBody()).isNull();
+    }
+
+    @Test
+    public void getProductByCode_whenCurrencyIsRequested_shouldConvertThePriceAndVaryTheETag() {
+        Product product = generateProduct("aProductWithConvertedPrice");
+        productRepository.save(product);
+
+        ResponseEntity<ProductVO> original = testRestTemplate.getForEntity(LOCALHOST + port + "/product/" + product.getCode(), ProductVO.class);
+        ResponseEntity<ProductVO> inEur = testRestTemplate.getForEntity(LOCALHOST + port + "/product/" + product.getCode() + "?currency=EUR", ProductVO.class);
+        ResponseEntity<ProductVO> inUsd = testRestTemplate.getForEntity(LOCALHOST + port + "/product/" + product.getCode() + "?currency=USD", ProductVO.class);
+
+        assertThat(original.getBody().getConvertedPrice()).isNull();
+        assertThat(inEur.getBody().getPrice()).isEqualTo(100);
+        assertThat(inEur.getBody().getConvertedCurrency()).isEqualTo(EUR);
+        assertThat(inEur.getBody().getConvertedPrice()).isEqualTo(2010L);
+        assertThat(inUsd.getBody().getConvertedPrice()).isEqualTo(2181L);
+        assertThat(inEur.getHeaders().getETag()).isNotEqualTo(original.getHeaders().getETag())
+                .isNotEqualTo(inUsd.getHeaders().getETag());
+    }
+
+    @Test
+    public void getProductByCode_whenProductChangedSinceTheETag_shouldReturnTheProduct() {
+        Product product = generateProduct("aChangedProductWithETag");
+        productRepository.save(product);
+        User admin = utilsComponent.saveUserWithRole(ADMIN);
+        String eTag = testRestTemplate.getForEntity(LOCALHOST + port + "/product/" + product.getCode(), ProductVO.class).getHeaders().getETag();
+
+        restTemplateForPatch.exchange(LOCALHOST + port + "/product/" + product.getCode() + "/3/" + admin.getId(),
+                PATCH, EMPTY, void.class);
+        ResponseEntity<ProductVO> response = testRestTemplate.exchange(LOCALHOST + port + "/product/" + product.getCode(),
+                GET, withIfNoneMatch(eTag), ProductVO.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getStock()).isEqualTo(4);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    public void getProducts_whenETagMatches_shouldReturnNotModified() {
+        productRepository.deleteAll();
+        storeTwoProductsInDatabase("aWonderfulCode700", "anotherCode700");
+
+        String eTag = testRestTemplate.getForEntity(LOCALHOST + port + "/product", ProductsPageVO.class).getHeaders().getETag();
+        ResponseEntity<String> response = testRestTemplate.exchange(LOCALHOST + port + "/product", GET, withIfNoneMatch(eTag), String.class);
+
+        assertThat(eTag).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+    }
+
     @Test
     public void getProductByCode_whenProductCodeIsNotPresent_shouldReturnErrorMessage() {
         String response = testRestTemplate.getForObject(LOCALHOST + port + "/product/12321", String.class);
@@ -158,12 +231,27 @@ class ProductControllerIntegrationTest {
     public void getProducts() {
         productRepository.deleteAll();
         storeTwoProductsInDatabase("aWonderfulCode500", "anotherCode500");
-        ProductVO[] products = testRestTemplate.getForObject(LOCALHOST + port + "/product", ProductVO[].class);
+        ProductsPageVO productsPage = testRestTemplate.getForObject(LOCALHOST + port + "/product", ProductsPageVO.class);
 
+        List<ProductVO> products = productsPage.getProducts();
         assertThat(products).hasSize(2);
-        assertThat(products[0].getCode()).contains("aWonderfulCode500");
-        assertThat(products[1].getCode()).contains("anotherCode500");
+        assertThat(products.get(0).getCode()).contains("aWonderfulCode500");
+        assertThat(products.get(1).getCode()).contains("anotherCode500");
+        assertThat(productsPage.getNextCursor()).isNull();
+    }
 
+    @Test
+    public void getProducts_whenCatalogIsBiggerThanTheLimit_shouldReturnTheNextCursor() {
+        productRepository.deleteAll();
+        Product firstProduct = storeTwoProductsInDatabase("aWonderfulCode600", "anotherCode600");
+
+        ProductsPageVO firstPage = testRestTemplate.getForObject(LOCALHOST + port + "/product?limit=1", ProductsPageVO.class);
+        ProductsPageVO secondPage = testRestTemplate.getForObject(LOCALHOST + port + "/product?limit=1&after=" + firstPage.getNextCursor(), ProductsPageVO.class);
+
+        assertThat(firstPage.getProducts()).extracting(ProductVO::getCode).containsExactly("aWonderfulCode600");
+        assertThat(firstPage.getNextCursor()).isEqualTo(firstProduct.getId());
+        assertThat(secondPage.getProducts()).extracting(ProductVO::getCode).containsExactly("anotherCode600");
+        assertThat(secondPage.getNextCursor()).isNull();
     }
 
     @Test
@@ -264,6 +352,59 @@ class ProductControllerIntegrationTest {
         assertThat(productRepository.findByCode(product.getCode())).isPresent();
     }
 
+    @Test
+    public void searchProducts_whenProductsAreAddedAndDeleted_shouldFollowTheChanges() {
+        User admin = saveUserWithRole(ADMIN);
+        ProductVO productVO = new ProductVO();
+        productVO.setCode("searchable-700");
+        productVO.setPrice(100);
+        productVO.setCurrency(RON);
+        productVO.setStock(12);
+        productVO.setDescription("Waterproof hiking boots");
+        productVO.setValid(true);
+        testRestTemplate.postForEntity(LOCALHOST + port + "/product/" + admin.getId(), productVO, Void.class);
+
+        ProductVO[] byDescriptionPrefix = testRestTemplate.getForObject(LOCALHOST + port + "/product/search?q=hiking boo", ProductVO[].class);
+        ProductVO[] byCode = testRestTemplate.getForObject(LOCALHOST + port + "/product/search?q=SEARCHABLE-700", ProductVO[].class);
+        testRestTemplate.delete(LOCALHOST + port + "/product/searchable-700/" + admin.getId());
+        ProductVO[] afterDelete = testRestTemplate.getForObject(LOCALHOST + port + "/product/search?q=hiking", ProductVO[].class);
+
+        assertThat(byDescriptionPrefix).extracting(ProductVO::getCode).containsExactly("searchable-700");
+        assertThat(byCode).extracting(ProductVO::getCode).containsExactly("searchable-700");
+        assertThat(afterDelete).isEmpty();
+    }
+
+    @Test
+    public void filterProducts_shouldReturnTheMatchingProductsAndCurrencyCounts() {
+        User admin = saveUserWithRole(ADMIN);
+        addProductThroughApi(admin, "facet-800", EUR, 7000.5, 5);
+        addProductThroughApi(admin, "facet-801", USD, 7000.5, 5);
+        addProductThroughApi(admin, "facet-802", EUR, 7000.5, 0);
+
+        FilteredProductsPageVO productsPage = testRestTemplate.getForObject(LOCALHOST + port
+                + "/product/filter?currency=EUR&minPrice=7000&maxPrice=7001&inStock=true", FilteredProductsPageVO.class);
+
+        assertThat(productsPage.getProducts()).extracting(ProductVO::getCode).containsExactly("facet-800");
+        assertThat(productsPage.getTotal()).isEqualTo(1);
+        assertThat(productsPage.getNextCursor()).isNull();
+        assertThat(productsPage.getCurrencyCounts()).containsEntry(EUR, 1).containsEntry(USD, 1).containsEntry(RON, 0);
+    }
+
+    @Test
+    public void suggestProductCodes_whenProductsAreAddedAndDeleted_shouldFollowTheChanges() {
+        User admin = saveUserWithRole(ADMIN);
+        addProductThroughApi(admin, "suggest-901", EUR, 10, 1);
+        addProductThroughApi(admin, "suggest-902", EUR, 10, 1);
+        addProductThroughApi(admin, "suggest-910", EUR, 10, 1);
+
+        String[] suggestions = testRestTemplate.getForObject(LOCALHOST + port + "/product/suggest?prefix=SUGGEST-90", String[].class);
+        testRestTemplate.delete(LOCALHOST + port + "/product/suggest-901/" + admin.getId());
+        String[] afterDelete = testRestTemplate.getForObject(LOCALHOST + port + "/product/suggest?prefix=suggest-9&limit=1", String[].class);
+
+        assertThat(suggestions).containsExactly("suggest-901", "suggest-902");
+        assertThat(afterDelete).containsExactly("suggest-902");
+    }
+
     @Test
     public void addStock_whenAddingStockToAnItemByAdmin_shouldBeSavedInDB() {
         Product product = generateProduct("aProductForAddingStock");
@@ -280,6 +421,23 @@ class ProductControllerIntegrationTest {
     }
 
 
+    private void addProductThroughApi(User admin, String code, Currencies currency, double price, int stock) {
+        ProductVO productVO = new ProductVO();
+        productVO.setCode(code);
+        productVO.setPrice(price);
+        productVO.setCurrency(currency);
+        productVO.setStock(stock);
+        productVO.setDescription("a description");
+        productVO.setValid(true);
+        testRestTemplate.postForEntity(LOCALHOST + port + "/product/" + admin.getId(), productVO, Void.class);
+    }
+
+    private HttpEntity<Void> withIfNoneMatch(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        return new HttpEntity<>(headers);
+    }
+
     private Product generateProduct(String productCode) {
         Product product = new Product();
         product.setCode(productCode);
@@ -0,0 +1,62 @@
+package com.practice.onlineShop.currency;
+
+import com.practice.onlineShop.enums.Currencies;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.practice.onlineShop.enums.Currencies.EUR;
+import static com.practice.onlineShop.enums.Currencies.RON;
+import static com.practice.onlineShop.enums.Currencies.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateTableTest {
+    private Map<Currencies, BigDecimal> rates;
+
+    @BeforeEach
+    public void setUp() {
+        rates = new EnumMap<>(Currencies.class);
+        rates.put(EUR, BigDecimal.ONE);
+        rates.put(USD, new BigDecimal("1.0850"));
+        rates.put(RON, new BigDecimal("4.9750"));
+    }
+
+    @Test
+    public void convert_shouldConvertMinorUnitsThroughTheCrossRate() {
+        RateTable rateTable = new RateTable(rates);
+
+        assertThat(rateTable.convert(10_000, EUR, RON)).isEqualTo(49_750);
+        assertThat(rateTable.convert(49_750, RON, EUR)).isEqualTo(10_000);
+        assertThat(rateTable.convert(10_000, RON, USD)).isEqualTo(2_181);
+        assertThat(rateTable.convert(1_234, USD, USD)).isEqualTo(1_234);
+    }
+
+    @Test
+    public void convert_shouldRoundHalfAwayFromZero() {
+        rates.put(USD, new BigDecimal("1.5"));
+        RateTable rateTable = new RateTable(rates);
+
+        assertThat(rateTable.convert(1, EUR, USD)).isEqualTo(2);
+        assertThat(rateTable.convert(-1, EUR, USD)).isEqualTo(-2);
+    }
+
+    @Test
+    public void convert_whenTheAmountWouldOverflowTheFastPath_shouldStillBeExact() {
+        RateTable rateTable = new RateTable(rates);
+
+        assertThat(rateTable.convert(1_000_000_000_000_000L, EUR, RON)).isEqualTo(4_975_000_000_000_000L);
+    }
+
+    @Test
+    public void rateTable_whenARateIsMissingOrNotPositive_shouldBeRejected() {
+        rates.put(USD, BigDecimal.ZERO);
+        assertThatThrownBy(() -> new RateTable(rates)).isInstanceOf(IllegalArgumentException.class);
+
+        rates.remove(USD);
+        assertThatThrownBy(() -> new RateTable(rates)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,54 @@
+package com.practice.onlineShop.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.practice.onlineShop.logging.AuditEventType.ADD_STOCK;
+import static com.practice.onlineShop.logging.AuditEventType.DELIVER_ORDER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    public void tryPublish_whenBufferIsFull_shouldDropTheEventInsteadOfBlocking() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(4);
+
+        for (int i = 0; i < 6; i++) {
+            ringBuffer.tryPublish(DELIVER_ORDER, i, 1L, null);
+        }
+
+        assertThat(ringBuffer.getDroppedEvents()).isEqualTo(2);
+        List<Object> orderIds = new ArrayList<>();
+        assertThat(ringBuffer.drain(event -> orderIds.add(event.getArguments()[0]), 10)).isEqualTo(4);
+        assertThat(orderIds).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    public void drain_whenBufferWrapsAround_shouldKeepThePublishingOrder() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(2);
+        List<Object> quantities = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(ringBuffer.tryPublish(ADD_STOCK, "aCode", i, 1L)).isTrue();
+            ringBuffer.drain(event -> quantities.add(event.getArguments()[1]), 1);
+        }
+
+        assertThat(quantities).containsExactly(0, 1, 2, 3, 4);
+        assertThat(ringBuffer.getDroppedEvents()).isZero();
+    }
+
+    @Test
+    public void isEmpty_shouldTellWhetherAnEventIsWaitingToBeDrained() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(2);
+        assertThat(ringBuffer.isEmpty()).isTrue();
+
+        ringBuffer.tryPublish(DELIVER_ORDER, 1L, 1L, null);
+        assertThat(ringBuffer.isEmpty()).isFalse();
+
+        ringBuffer.drain(event -> {
+        }, 1);
+        assertThat(ringBuffer.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,79 @@
+package com.practice.onlineShop.mappers;
+
+import com.practice.onlineShop.entities.OrderItem;
+import com.practice.onlineShop.entities.Orders;
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.exceptions.InvalidProductIdException;
+import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.repositories.UserRepository;
+import com.practice.onlineShop.vos.OrderVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static java.util.Optional.of;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderMapperTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final OrderMapper orderMapper = new OrderMapper(userRepository, productRepository);
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(of(user));
+    }
+
+    @Test
+    public void toEntity_whenOrderHasSeveralProducts_shouldLoadThemWithOneQuery() throws Exception {
+        when(productRepository.findAllById(any())).thenReturn(Arrays.asList(product(1), product(2), product(3)));
+
+        Orders order = orderMapper.toEntity(orderVO(1, 2, 3));
+
+        verify(productRepository).findAllById(new HashSet<>(Arrays.asList(1L, 2L, 3L)));
+        verifyNoMoreInteractions(productRepository);
+        assertThat(order.getOrderItems()).extracting(OrderItem::getProduct).extracting(Product::getId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    public void toEntity_whenSeveralProductsAreMissing_shouldReportThemAllInOneException() {
+        when(productRepository.findAllById(any())).thenReturn(Arrays.asList(product(2)));
+
+        assertThatThrownBy(() -> orderMapper.toEntity(orderVO(3, 2, 1)))
+                .isInstanceOfSatisfying(InvalidProductIdException.class,
+                        exception -> assertThat(exception.getProductsIds()).containsExactly(1L, 3L));
+        verify(productRepository).findAllById(any());
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+
+    private static OrderVO orderVO(int... productsIds) {
+        OrderVO orderVO = new OrderVO();
+        orderVO.setUserId(1);
+        Map<Integer, Integer> productsIdsToQuantity = new HashMap<>();
+        for (int productId : productsIds) {
+            productsIdsToQuantity.put(productId, 1);
+        }
+        orderVO.setProductsIdsToQuantity(productsIdsToQuantity);
+        return orderVO;
+    }
+}
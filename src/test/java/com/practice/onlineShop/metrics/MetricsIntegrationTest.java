@@ -0,0 +1,69 @@
+package com.practice.onlineShop.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@AutoConfigureMetrics
+class MetricsIntegrationTest {
+    public static final String LOCALHOST = "http://localhost:";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void getProduct_whenCodeIsInvalid_shouldTimeEveryLayerAndCountTheException() {
+        double exceptionsBefore = invalidProductCodeExceptions();
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity(LOCALHOST + port + "/product/missingMetricsProduct", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(invalidProductCodeExceptions() - exceptionsBefore).isEqualTo(1);
+        assertThat(meterRegistry.find("online-shop.calls").tags("layer", "controller", "class", "ProductController",
+                "method", "getProduct", "exception", "InvalidProductCodeException").timer()).isNotNull();
+        assertThat(meterRegistry.find("online-shop.calls").tags("layer", "service", "class", "ProductService",
+                "method", "getProduct").timer()).isNotNull();
+        assertThat(meterRegistry.find("online-shop.calls").tags("layer", "repository", "class", "ProductRepository").timer()).isNotNull();
+    }
+
+    @Test
+    public void getProducts_shouldRecordTheQueriesOfTheRequest() {
+        testRestTemplate.getForEntity(LOCALHOST + port + "/product", String.class);
+
+        DistributionSummary queries = meterRegistry.find("online-shop.request.queries").tags("method", "GET", "uri", "/product").summary();
+        assertThat(queries).isNotNull();
+        assertThat(queries.totalAmount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void prometheusEndpoint_shouldExposeTheApplicationMetrics() {
+        testRestTemplate.getForEntity(LOCALHOST + port + "/product", String.class);
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity(LOCALHOST + port + "/actuator/prometheus", String.class);
+
+        assertThat(response.getBody()).contains("online_shop_calls_seconds_bucket", "online_shop_request_queries_count");
+    }
+
+    private double invalidProductCodeExceptions() {
+        Counter counter = meterRegistry.find("online-shop.exceptions").tags("exception", "InvalidProductCodeException").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,82 @@
+package com.practice.onlineShop.repositories;
+
+import com.practice.onlineShop.entities.OrderItem;
+import com.practice.onlineShop.entities.Orders;
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.entities.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.practice.onlineShop.enums.Currencies.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderRepositoryIntegrationTest {
+    private static final int ORDER_ITEMS = 50;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void save_whenOrderHasManyItems_shouldInsertThemInBatches() {
+        User user = testEntityManager.persist(new User());
+        List<Product> products = saveProducts("batchedProduct", ORDER_ITEMS);
+        Orders order = generateOrder(user, products);
+
+        statistics.clear();
+        orderRepository.save(order);
+        testEntityManager.flush();
+
+        // at most two sequence calls per table, one batched insert for the order and one for its items
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ORDER_ITEMS + 1);
+    }
+
+    private List<Product> saveProducts(String codePrefix, int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setCode(codePrefix + i);
+            product.setPrice(100);
+            product.setStock(1);
+            product.setValid(true);
+            product.setCurrency(USD);
+            products.add(testEntityManager.persist(product));
+        }
+        testEntityManager.flush();
+        return products;
+    }
+
+    private Orders generateOrder(User user, List<Product> products) {
+        Orders order = new Orders();
+        order.setUser(user);
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (Product product : products) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProduct(product);
+            orderItem.setQuantity(1);
+            orderItems.add(orderItem);
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+}
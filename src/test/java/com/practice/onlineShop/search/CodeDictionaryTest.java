@@ -0,0 +1,73 @@
+package com.practice.onlineShop.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodeDictionaryTest {
+    private CodeDictionary codeDictionary;
+
+    @BeforeEach
+    public void setUp() {
+        codeDictionary = new CodeDictionary();
+        codeDictionary.addAll(Arrays.asList("SOCK-2", "BOOT-1", "boot-10", "BOOT-2", "TENT-3"));
+    }
+
+    @Test
+    public void suggest_shouldReturnTheCodesStartingWithThePrefixIgnoringCase() {
+        assertThat(codeDictionary.suggest("boot", 10)).containsExactly("BOOT-1", "boot-10", "BOOT-2");
+        assertThat(codeDictionary.suggest("BOOT-1", 10)).containsExactly("BOOT-1", "boot-10");
+        assertThat(codeDictionary.suggest("", 10)).containsExactly("BOOT-1", "boot-10", "BOOT-2", "SOCK-2", "TENT-3");
+        assertThat(codeDictionary.suggest("hat", 10)).isEmpty();
+    }
+
+    @Test
+    public void suggest_shouldReturnAtMostTheLimit() {
+        assertThat(codeDictionary.suggest("boot", 2)).containsExactly("BOOT-1", "boot-10");
+    }
+
+    @Test
+    public void suggest_whenCodesAreAddedAndRemoved_shouldFollowTheChanges() {
+        codeDictionary.add("BOOT-11");
+        codeDictionary.remove("boot-10");
+        codeDictionary.remove("BOOT-99");
+
+        assertThat(codeDictionary.suggest("boot-1", 10)).containsExactly("BOOT-1", "BOOT-11");
+        assertThat(codeDictionary.size()).isEqualTo(5);
+    }
+
+    @Test
+    public void suggest_whenEnoughChangesAreCompacted_shouldStillFindEveryCode() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String code = String.format("SKU-%05d", i);
+            codes.add(code);
+            codeDictionary.add(code);
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            codeDictionary.remove(codes.get(i));
+        }
+
+        assertThat(codeDictionary.size()).isEqualTo(2500 + 5);
+        assertThat(codeDictionary.suggest("sku-0000", 10)).containsExactly("SKU-00001", "SKU-00003", "SKU-00005",
+                "SKU-00007", "SKU-00009");
+        assertThat(codeDictionary.suggest("SKU-04999", 10)).containsExactly("SKU-04999");
+    }
+
+    @Test
+    public void bytesPerCode_shouldBeSmallerThanTheCodesAsStrings() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            codes.add(String.format("SKU-%06d", i));
+        }
+        codeDictionary.addAll(codes);
+
+        // a 10 character String alone takes more than 40 bytes
+        assertThat(codeDictionary.bytesPerCode()).isLessThan(12);
+    }
+}
@@ -0,0 +1,91 @@
+package com.practice.onlineShop.search;
+
+import com.practice.onlineShop.vos.ProductFilterVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static com.practice.onlineShop.enums.Currencies.EUR;
+import static com.practice.onlineShop.enums.Currencies.RON;
+import static com.practice.onlineShop.enums.Currencies.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetIndexTest {
+    private FacetIndex facetIndex;
+
+    @BeforeEach
+    public void setUp() {
+        facetIndex = new FacetIndex(50, 200);
+        facetIndex.index(1, 20, EUR, 5, true);
+        facetIndex.index(2, 80, EUR, 0, true);
+        facetIndex.index(3, 120, EUR, 3, true);
+        facetIndex.index(4, 150, USD, 7, true);
+        facetIndex.index(5, 300, EUR, 1, false);
+    }
+
+    @Test
+    public void filter_shouldApplyEveryFilterToTheProducts() {
+        ProductFilterVO filter = new ProductFilterVO();
+        filter.setCurrency(Collections.singletonList(EUR));
+        filter.setMinPrice(50.0);
+        filter.setMaxPrice(200.0);
+        filter.setInStock(true);
+        filter.setValid(true);
+
+        FacetIndex.Result result = facetIndex.filter(filter, 10);
+
+        assertThat(result.getProductIds()).containsExactly(3L);
+        assertThat(result.getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    public void filter_shouldCountEachFacetWithoutItsOwnFilter() {
+        ProductFilterVO filter = new ProductFilterVO();
+        filter.setCurrency(Collections.singletonList(EUR));
+        filter.setMinPrice(50.0);
+        filter.setMaxPrice(200.0);
+        filter.setValid(true);
+
+        FacetIndex.Result result = facetIndex.filter(filter, 10);
+
+        assertThat(result.getCurrencyCounts()[EUR.ordinal()]).isEqualTo(2);
+        assertThat(result.getCurrencyCounts()[USD.ordinal()]).isEqualTo(1);
+        assertThat(result.getCurrencyCounts()[RON.ordinal()]).isEqualTo(0);
+        assertThat(result.getPriceBucketCounts()).containsExactly(1, 2, 0);
+    }
+
+    @Test
+    public void filter_shouldPageByProductId() {
+        FacetIndex.Result firstPage = facetIndex.filter(new ProductFilterVO(), 2);
+        ProductFilterVO nextPageFilter = new ProductFilterVO();
+        nextPageFilter.setAfter(firstPage.getNextCursor());
+        FacetIndex.Result secondPage = facetIndex.filter(nextPageFilter, 2);
+
+        assertThat(firstPage.getProductIds()).containsExactly(1L, 2L);
+        assertThat(firstPage.getNextCursor()).isEqualTo(2L);
+        assertThat(secondPage.getProductIds()).containsExactly(3L, 4L);
+        assertThat(secondPage.getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    public void addStock_shouldMoveTheProductInAndOutOfStock() {
+        ProductFilterVO filter = new ProductFilterVO();
+        filter.setInStock(true);
+
+        facetIndex.addStock(2, 4);
+        facetIndex.addStock(1, -5);
+
+        assertThat(facetIndex.filter(filter, 10).getProductIds()).containsExactly(2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    public void remove_shouldDropTheProductFromTheResultsAndCounts() {
+        facetIndex.remove(4);
+
+        FacetIndex.Result result = facetIndex.filter(new ProductFilterVO(), 10);
+
+        assertThat(result.getProductIds()).containsExactly(1L, 2L, 3L, 5L);
+        assertThat(result.getCurrencyCounts()[USD.ordinal()]).isEqualTo(0);
+    }
+}
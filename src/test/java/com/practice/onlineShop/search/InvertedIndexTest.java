@@ -0,0 +1,66 @@
+package com.practice.onlineShop.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+    private InvertedIndex invertedIndex;
+
+    @BeforeEach
+    public void setUp() {
+        invertedIndex = new InvertedIndex();
+        invertedIndex.index(1, "BOOT-1", "Waterproof leather hiking boots");
+        invertedIndex.index(2, "SOCK-2", "Wool hiking socks");
+        invertedIndex.index(3, "TENT-3", "Two person tent");
+    }
+
+    @Test
+    public void search_shouldRequireEveryTermAndMatchTheLastOneAsAPrefix() {
+        assertThat(invertedIndex.search("hiking bo", 10)).containsExactly("BOOT-1");
+        assertThat(invertedIndex.search("hiking", 10)).containsExactlyInAnyOrder("BOOT-1", "SOCK-2");
+        assertThat(invertedIndex.search("hiking tent", 10)).isEmpty();
+    }
+
+    @Test
+    public void search_shouldRankCodeMatchesAboveDescriptionMatches() {
+        invertedIndex.index(4, "SOCK-4", "Socks for the sock drawer");
+        invertedIndex.index(5, "DRAWER-5", "A drawer for sock storage");
+
+        assertThat(invertedIndex.search("sock", 10)).startsWith("SOCK-2", "SOCK-4").endsWith("DRAWER-5");
+    }
+
+    @Test
+    public void search_shouldExpandThePrefixToAtMostTheLimitOfTerms() {
+        for (int i = 0; i < InvertedIndex.MAX_PREFIX_EXPANSIONS + 10; i++) {
+            invertedIndex.index(100 + i, String.format("PREFIX%03d", i), "expanded");
+        }
+
+        assertThat(invertedIndex.search("prefix", 1000)).hasSize(InvertedIndex.MAX_PREFIX_EXPANSIONS)
+                .doesNotContain(String.format("PREFIX%03d", InvertedIndex.MAX_PREFIX_EXPANSIONS));
+    }
+
+    @Test
+    public void search_shouldReturnAtMostTheLimit() {
+        assertThat(invertedIndex.search("hiking", 1)).hasSize(1);
+    }
+
+    @Test
+    public void index_whenProductIsUpdated_shouldOnlyMatchTheNewDescription() {
+        invertedIndex.index(3, "TENT-3", "Four person dome");
+
+        assertThat(invertedIndex.search("two", 10)).isEmpty();
+        assertThat(invertedIndex.search("dome", 10)).containsExactly("TENT-3");
+        assertThat(invertedIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void remove_shouldDropTheProductFromEveryTerm() {
+        invertedIndex.remove(1);
+
+        assertThat(invertedIndex.search("boot", 10)).isEmpty();
+        assertThat(invertedIndex.search("hiking", 10)).containsExactly("SOCK-2");
+        assertThat(invertedIndex.size()).isEqualTo(2);
+    }
+}
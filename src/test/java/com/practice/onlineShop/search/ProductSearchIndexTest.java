@@ -0,0 +1,48 @@
+package com.practice.onlineShop.search;
+
+import com.practice.onlineShop.events.ProductChangedEvent;
+import com.practice.onlineShop.vos.ProductFilterVO;
+import com.practice.onlineShop.vos.ProductVO;
+import org.junit.jupiter.api.Test;
+
+import static com.practice.onlineShop.enums.Currencies.EUR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+    private final ProductSearchIndex productSearchIndex = new ProductSearchIndex(null, null, null, new double[]{50, 200});
+
+    @Test
+    public void onProductChanged_whenProductHasNoCode_shouldOnlyFilterIt() {
+        productSearchIndex.onProductChanged(new ProductChangedEvent(product(1, "laptop", "a light laptop"), false));
+        productSearchIndex.onProductChanged(new ProductChangedEvent(product(2, null, "a heavy laptop"), false));
+
+        assertThat(productSearchIndex.search("laptop", 10)).containsExactly("laptop");
+        assertThat(productSearchIndex.suggestCodes("l", 10)).containsExactly("laptop");
+        assertThat(productSearchIndex.filter(new ProductFilterVO(), 10).getProductIds()).containsExactlyInAnyOrder(1L, 2L);
+
+        productSearchIndex.onProductChanged(new ProductChangedEvent(product(2, null, "a heavy laptop"), true));
+
+        assertThat(productSearchIndex.filter(new ProductFilterVO(), 10).getProductIds()).containsExactly(1L);
+    }
+
+    @Test
+    public void onProductChanged_whenCodeIsRemovedFromAProduct_shouldNotSearchItAnymore() {
+        productSearchIndex.onProductChanged(new ProductChangedEvent(product(1, "laptop", "a light laptop"), false));
+
+        productSearchIndex.onProductChanged(new ProductChangedEvent(product(1, null, "a light laptop"), false));
+
+        assertThat(productSearchIndex.search("laptop", 10)).isEmpty();
+    }
+
+    private static ProductVO product(long id, String code, String description) {
+        ProductVO productVO = new ProductVO();
+        productVO.setId(id);
+        productVO.setCode(code);
+        productVO.setDescription(description);
+        productVO.setPrice(100);
+        productVO.setCurrency(EUR);
+        productVO.setStock(1);
+        productVO.setValid(true);
+        return productVO;
+    }
+}
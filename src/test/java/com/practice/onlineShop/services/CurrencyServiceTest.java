@@ -0,0 +1,57 @@
+package com.practice.onlineShop.services;
+
+import com.practice.onlineShop.enums.Currencies;
+import com.practice.onlineShop.exceptions.InvalidRatesException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.practice.onlineShop.enums.Currencies.EUR;
+import static com.practice.onlineShop.enums.Currencies.RON;
+import static com.practice.onlineShop.enums.Currencies.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CurrencyServiceTest {
+    private final CurrencyService currencyService = new CurrencyService(
+            new ByteArrayResource("EUR=1\nUSD=1.0850\nRON=4.9750\n".getBytes(StandardCharsets.ISO_8859_1)));
+
+    @Test
+    public void updateRates_whenRatesAreValid_shouldReplaceTheRateTable() throws Exception {
+        Map<Currencies, BigDecimal> rates = rates();
+        rates.put(RON, new BigDecimal("5"));
+
+        currencyService.updateRates(rates, 1L);
+
+        assertThat(currencyService.getRateTable().convert(10_000, EUR, RON)).isEqualTo(50_000);
+    }
+
+    @Test
+    public void updateRates_whenRatesAreMissing_shouldThrowInvalidRatesAndKeepTheRateTable() {
+        assertThatThrownBy(() -> currencyService.updateRates(null, 1L)).isInstanceOf(InvalidRatesException.class);
+
+        assertThat(currencyService.getRateTable().convert(10_000, EUR, RON)).isEqualTo(49_750);
+    }
+
+    @Test
+    public void updateRates_whenARateIsNull_shouldThrowInvalidRatesAndKeepTheRateTable() {
+        Map<Currencies, BigDecimal> rates = rates();
+        rates.put(USD, null);
+
+        assertThatThrownBy(() -> currencyService.updateRates(rates, 1L)).isInstanceOf(InvalidRatesException.class);
+
+        assertThat(currencyService.getRateTable().convert(10_000, EUR, RON)).isEqualTo(49_750);
+    }
+
+    private static Map<Currencies, BigDecimal> rates() {
+        Map<Currencies, BigDecimal> rates = new HashMap<>();
+        rates.put(EUR, BigDecimal.ONE);
+        rates.put(USD, new BigDecimal("1.0850"));
+        rates.put(RON, new BigDecimal("4.9750"));
+        return rates;
+    }
+}
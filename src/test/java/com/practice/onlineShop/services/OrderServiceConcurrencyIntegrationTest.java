@@ -0,0 +1,80 @@
+package com.practice.onlineShop.services;
+
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.exceptions.NotEnoughStockException;
+import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.utils.UtilsComponent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.practice.onlineShop.enums.Roles.CLIENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderServiceConcurrencyIntegrationTest {
+    private static final int ORDERS = 2000;
+    private static final int THREADS = 32;
+    private static final int LOW_STOCK = 25;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UtilsComponent utilsComponent;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void addOrder_whenManyOrdersCompeteForLowStock_shouldNeverOversell() throws Exception {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        Product scarceProduct = utilsComponent.saveProduct("scarceProductForConcurrentOrders", LOW_STOCK);
+        Product plentifulProduct = utilsComponent.saveProduct("plentifulProductForConcurrentOrders", LOW_STOCK * 2);
+
+        AtomicInteger acceptedOrders = new AtomicInteger();
+        AtomicInteger rejectedOrders = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < ORDERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.addOrder(utilsComponent.createOrderVO(client, scarceProduct, plentifulProduct));
+                    acceptedOrders.incrementAndGet();
+                } catch (NotEnoughStockException exception) {
+                    rejectedOrders.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(acceptedOrders.get()).isEqualTo(LOW_STOCK);
+        assertThat(rejectedOrders.get()).isEqualTo(ORDERS - LOW_STOCK);
+        assertThat(productRepository.findById(scarceProduct.getId()).get().getStock()).isZero();
+        assertThat(productRepository.findById(plentifulProduct.getId()).get().getStock()).isEqualTo(LOW_STOCK);
+        assertThat(countOrderItems(scarceProduct)).isEqualTo(LOW_STOCK);
+        assertThat(countOrderItems(plentifulProduct)).isEqualTo(LOW_STOCK);
+    }
+
+    private int countOrderItems(Product product) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_item WHERE product_id = ?", Integer.class, product.getId());
+    }
+}
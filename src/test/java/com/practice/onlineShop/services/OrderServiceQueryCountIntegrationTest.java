@@ -0,0 +1,110 @@
+package com.practice.onlineShop.services;
+
+import com.practice.onlineShop.entities.OrderItem;
+import com.practice.onlineShop.entities.Orders;
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.enums.OrderStatus;
+import com.practice.onlineShop.repositories.OrderRepository;
+import com.practice.onlineShop.utils.UtilsComponent;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.practice.onlineShop.enums.OrderStatus.DELIVERED;
+import static com.practice.onlineShop.enums.OrderStatus.NEW;
+import static com.practice.onlineShop.enums.Roles.CLIENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The statements Hibernate prepares to read or return an order must not depend on how many items it has.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:orderQueryCount"
+})
+@DirtiesContext
+class OrderServiceQueryCountIntegrationTest {
+    private static final int ORDER_ITEMS = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UtilsComponent utilsComponent;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        client = utilsComponent.saveUserWithRole(CLIENT);
+        // the first call loads the roles of the client into the roles cache
+        orderService.getOrder(saveOrder("warmUpProduct", 1, NEW).getId(), client.getId());
+    }
+
+    @Test
+    public void getOrder_shouldPrepareAsManyStatementsForFiftyItemsAsForOne() throws Exception {
+        Orders smallOrder = saveOrder("smallOrderToGet", 1, NEW);
+        Orders bigOrder = saveOrder("bigOrderToGet", ORDER_ITEMS, NEW);
+
+        statistics.clear();
+        assertThat(orderService.getOrder(smallOrder.getId(), client.getId()).getItems()).hasSize(1);
+        long smallOrderStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertThat(orderService.getOrder(bigOrder.getId(), client.getId()).getItems()).hasSize(ORDER_ITEMS);
+        long bigOrderStatements = statistics.getPrepareStatementCount();
+
+        assertThat(bigOrderStatements).isEqualTo(smallOrderStatements);
+    }
+
+    @Test
+    public void returnOrder_shouldPrepareAsManyStatementsForFiftyItemsAsForOne() throws Exception {
+        Orders smallOrder = saveOrder("smallOrderToReturn", 1, DELIVERED);
+        Orders bigOrder = saveOrder("bigOrderToReturn", ORDER_ITEMS, DELIVERED);
+
+        statistics.clear();
+        orderService.returnOrder((int) smallOrder.getId(), client.getId());
+        long smallOrderStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        orderService.returnOrder((int) bigOrder.getId(), client.getId());
+        long bigOrderStatements = statistics.getPrepareStatementCount();
+
+        assertThat(bigOrderStatements).isEqualTo(smallOrderStatements);
+    }
+
+    private Orders saveOrder(String codePrefix, int items, OrderStatus status) {
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            orderItems.add(utilsComponent.generateOrderItem(utilsComponent.saveProduct(codePrefix + i, 10)));
+        }
+        return transactionTemplate.execute(transactionStatus -> {
+            Orders order = new Orders();
+            order.setUser(client);
+            order.setStatus(status);
+            orderItems.forEach(orderItem -> orderItem.setOrder(order));
+            order.setOrderItems(orderItems);
+            return orderRepository.save(order);
+        });
+    }
+}
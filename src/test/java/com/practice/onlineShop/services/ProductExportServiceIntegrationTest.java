@@ -0,0 +1,269 @@
+package com.practice.onlineShop.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.onlineShop.enums.ExportFormats;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.practice.onlineShop.enums.ExportFormats.CSV;
+import static com.practice.onlineShop.enums.ExportFormats.NDJSON;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against a generated catalog of export.products rows (20 000 by default) in an in-memory database. The
+ * large-export Maven profile exports a million products with a 128 MB heap from a file backed database with a
+ * small page cache, so the rows are on disk and not in the heap under test, and checks that the heap retained
+ * while exporting does not grow with the catalog.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=${export.datasource.url:jdbc:h2:mem:productExport}",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ProductExportServiceIntegrationTest {
+    private static final long GENERATED_ID_OFFSET = 1_000_000_000L;
+    private static final int PRODUCTS = Integer.getInteger("export.products", 20_000);
+    private static final int HEAP_SAMPLES = 10;
+    private static final long MAX_RETAINED_HEAP_GROWTH_BYTES = 16L * 1024 * 1024;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void generateCatalog() {
+        jdbcTemplate.update("DELETE FROM product WHERE id > ?", GENERATED_ID_OFFSET);
+        jdbcTemplate.update("INSERT INTO product (id, code, currency, description, price, stock, valid, version) " +
+                "SELECT X + ?, 'exported-' || X, 'EUR', 'generated product, number ' || X, 10.5, 5, TRUE, 0 " +
+                "FROM SYSTEM_RANGE(1, ?)", GENERATED_ID_OFFSET, PRODUCTS);
+    }
+
+    @Test
+    public void exportProducts_whenFormatIsNdjson_shouldWriteEveryProductInTheDatabaseOnItsOwnLine() throws Exception {
+        RowDigest exportedRows = new RowDigest();
+        LineOutputStream outputStream = new LineOutputStream(line -> {
+            JsonNode product = objectMapper.readTree(line);
+            exportedRows.add(product.get("id").asLong(), text(product, "code"), text(product, "description"),
+                    product.get("price").asDouble(), text(product, "currency"), product.get("stock").asInt(),
+                    product.get("valid").asBoolean());
+        });
+
+        long exported = productExportService.exportProducts(NDJSON, outputStream);
+
+        assertThat(exported).isEqualTo(countProducts()).isEqualTo(PRODUCTS);
+        assertThat(outputStream.lines).isEqualTo(exported);
+        assertThat(exportedRows).isEqualTo(databaseRows());
+    }
+
+    @Test
+    public void exportProducts_whenFormatIsCsv_shouldWriteAHeaderAndEveryProductInTheDatabaseOnItsOwnLine() throws Exception {
+        RowDigest exportedRows = new RowDigest();
+        List<String> header = new ArrayList<>();
+        LineOutputStream outputStream = new LineOutputStream(line -> {
+            List<String> fields = parseCsvLine(line);
+            if (header.isEmpty()) {
+                header.addAll(fields);
+                return;
+            }
+            exportedRows.add(Long.parseLong(fields.get(0)), fields.get(1), fields.get(2), Double.parseDouble(fields.get(3)),
+                    fields.get(4), Integer.parseInt(fields.get(5)), Boolean.parseBoolean(fields.get(6)));
+        });
+
+        long exported = productExportService.exportProducts(CSV, outputStream);
+
+        assertThat(header).containsExactly("id", "code", "description", "price", "currency", "stock", "valid");
+        assertThat(exported).isEqualTo(countProducts()).isEqualTo(PRODUCTS);
+        assertThat(outputStream.lines).isEqualTo(exported + 1);
+        assertThat(exportedRows).isEqualTo(databaseRows());
+    }
+
+    @Test
+    public void exportProducts_whenFormatIsNdjson_shouldNotRetainMoreHeapAsTheCatalogGrows() throws Exception {
+        assertExportRetainsAFlatHeap(NDJSON);
+    }
+
+    @Test
+    public void exportProducts_whenFormatIsCsv_shouldNotRetainMoreHeapAsTheCatalogGrows() throws Exception {
+        assertExportRetainsAFlatHeap(CSV);
+    }
+
+    /**
+     * Exports into a stream that only counts lines, measuring what the export allocates on this thread and the heap
+     * still reachable after a collection every tenth of the catalog.
+     */
+    private void assertExportRetainsAFlatHeap(ExportFormats format) throws IOException {
+        long sampleEvery = Math.max(PRODUCTS / HEAP_SAMPLES, 1);
+        List<Long> retainedHeap = new ArrayList<>();
+        LineOutputStream outputStream = new LineOutputStream(null) {
+            @Override
+            protected void endLine() {
+                if (lines % sampleEvery == 0) {
+                    retainedHeap.add(retainedHeapBytes());
+                }
+            }
+        };
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        long exported = productExportService.exportProducts(format, outputStream);
+
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        log.info("Exported {} products as {}: {} bytes allocated per product, retained heap samples {}",
+                exported, format, allocated / Math.max(exported, 1), retainedHeap);
+        assertThat(exported).isEqualTo(PRODUCTS);
+        assertThat(retainedHeap).hasSizeGreaterThanOrEqualTo(HEAP_SAMPLES);
+        long firstSample = retainedHeap.get(0);
+        assertThat(retainedHeap).allSatisfy(sample ->
+                assertThat(sample - firstSample).isLessThan(MAX_RETAINED_HEAP_GROWTH_BYTES));
+    }
+
+    private long countProducts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Long.class);
+    }
+
+    private RowDigest databaseRows() {
+        RowDigest rowDigest = new RowDigest();
+        jdbcTemplate.query("SELECT id, code, description, price, currency, stock, valid FROM product ORDER BY id",
+                resultSet -> {
+                    rowDigest.add(resultSet.getLong("id"), resultSet.getString("code"), resultSet.getString("description"),
+                            resultSet.getDouble("price"), resultSet.getString("currency"), resultSet.getInt("stock"),
+                            resultSet.getBoolean("valid"));
+                });
+        return rowDigest;
+    }
+
+    private static long retainedHeapBytes() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * The number of rows and a hash of their fields in order, so a million rows can be compared without keeping them.
+     * Nulls and empty CSV fields hash the same.
+     */
+    private static class RowDigest {
+        private long rows;
+        private long hash;
+
+        private void add(long id, String code, String description, double price, String currency, int stock, boolean valid) {
+            String row = id + "|" + nullToEmpty(code) + "|" + nullToEmpty(description) + "|" + price + "|"
+                    + nullToEmpty(currency) + "|" + stock + "|" + valid;
+            CRC32 crc = new CRC32();
+            crc.update(row.getBytes(StandardCharsets.UTF_8));
+            hash = hash * 31 + crc.getValue();
+            rows++;
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RowDigest && ((RowDigest) other).rows == rows && ((RowDigest) other).hash == hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+
+        @Override
+        public String toString() {
+            return rows + " rows, hash " + hash;
+        }
+    }
+
+    private interface LineConsumer {
+        void accept(String line) throws IOException;
+    }
+
+    private static class LineOutputStream extends OutputStream {
+        private final LineConsumer lineConsumer;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        protected long lines;
+
+        private LineOutputStream(LineConsumer lineConsumer) {
+            this.lineConsumer = lineConsumer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b != '\n') {
+                if (lineConsumer != null) {
+                    line.write(b);
+                }
+                return;
+            }
+            lines++;
+            if (lineConsumer != null) {
+                lineConsumer.accept(new String(line.toByteArray(), StandardCharsets.UTF_8));
+                line.reset();
+            }
+            endLine();
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+
+        protected void endLine() {
+        }
+    }
+}
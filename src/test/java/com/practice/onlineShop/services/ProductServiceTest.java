@@ -1,19 +1,25 @@
 package com.practice.onlineShop.services;
 
+import com.practice.onlineShop.caches.ProductCache;
 import com.practice.onlineShop.entities.Product;
 import com.practice.onlineShop.exceptions.InvalidProductCodeException;
 import com.practice.onlineShop.mappers.ProductMapper;
 import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.search.ProductSearchIndex;
 import com.practice.onlineShop.vos.ProductVO;
+import com.practice.onlineShop.vos.ProductsPageVO;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,6 +27,8 @@ import static com.practice.onlineShop.enums.Currencies.EUR;
 import static java.util.Optional.of;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,9 +44,24 @@ public class ProductServiceTest {
         @MockBean
         private ProductRepository productRepository;
 
+        @MockBean
+        private StockService stockService;
+
+        @MockBean
+        private ProductSearchIndex productSearchIndex;
+
+        @MockBean
+        private CurrencyService currencyService;
+
+        @Bean
+        public ProductCache productCache() {
+            return new ProductCache(productRepository, productMapper, 100, Duration.ofMinutes(1));
+        }
+
         @Bean
-        public ProductService productService() {
-            return new ProductService(productMapper, productRepository);
+        public ProductService productService(ProductCache productCache) {
+            return new ProductService(productMapper, productRepository, stockService, productCache, productSearchIndex,
+                    currencyService, mock(ApplicationEventPublisher.class));
         }
     }
 
@@ -81,7 +104,7 @@ public class ProductServiceTest {
     @Test
     public void getProduct_whenProductIsNotInDb_shouldThrowAnException() {
         try {
-            productService.getProduct("asd");
+            productService.getProduct("asd", null);
         } catch (InvalidProductCodeException e) {
             assert true;
             return;
@@ -98,7 +121,7 @@ public class ProductServiceTest {
         productVO.setCode("aCode");
         when(productMapper.toVO(any())).thenReturn(productVO);
 
-        ProductVO returnedProduct = productService.getProduct("aCode");
+        ProductVO returnedProduct = productService.getProduct("aCode", null);
 
         assertThat(returnedProduct.getCode()).isEqualTo("aCode");
 
@@ -121,16 +144,18 @@ public class ProductServiceTest {
         ProductVO productVO2 = new ProductVO();
         product2.setCode("aCode2");
 
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(products);
         when(productMapper.toVO(product1)).thenReturn(productVO1);
         when(productMapper.toVO(product2)).thenReturn(productVO2);
 
-        List<ProductVO> productList = productService.getProducts();
+        ProductsPageVO productsPage = productService.getProducts(null, null, null);
+        List<ProductVO> productList = productsPage.getProducts();
 
         assertThat(productList).hasSize(2);
         assertThat(productList).containsOnly(productVO1, productVO2);
+        assertThat(productsPage.getNextCursor()).isNull();
 
-        verify(productRepository).findAll();
+        verify(productRepository).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, ProductService.DEFAULT_PAGE_SIZE + 1));
         verify(productMapper).toVO(product1);
         verify(productMapper).toVO(product2);
     }
@@ -177,7 +202,7 @@ public class ProductServiceTest {
         verify(productRepository).findByCode(productVO.getCode());
 
         ArgumentCaptor<Product> productArgumentCaptor = ArgumentCaptor.forClass(Product.class);
-        verify(productRepository).save(productArgumentCaptor.capture());
+        verify(productRepository).saveAndFlush(productArgumentCaptor.capture());
 
         Product productSendAsCapture = productArgumentCaptor.getValue();
 
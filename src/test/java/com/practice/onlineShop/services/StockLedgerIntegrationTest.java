@@ -0,0 +1,100 @@
+package com.practice.onlineShop.services;
+
+import com.practice.onlineShop.entities.Product;
+import com.practice.onlineShop.entities.User;
+import com.practice.onlineShop.exceptions.NotEnoughStockException;
+import com.practice.onlineShop.repositories.ProductRepository;
+import com.practice.onlineShop.utils.UtilsComponent;
+import com.practice.onlineShop.vos.ProductVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.practice.onlineShop.enums.Currencies.RON;
+import static com.practice.onlineShop.enums.Roles.ADMIN;
+import static com.practice.onlineShop.enums.Roles.CLIENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "online-shop.stock-ledger.enabled=true",
+        "online-shop.stock-ledger.flush-interval=50",
+        "spring.datasource.url=jdbc:h2:mem:stockLedger"
+})
+@DirtiesContext
+class StockLedgerIntegrationTest {
+    private static final int ORDERS = 1000;
+    private static final int THREADS = 32;
+    private static final int LOW_STOCK = 40;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UtilsComponent utilsComponent;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void addOrder_whenStockIsServedByTheLedger_shouldNeverOversellAndFlushTheNetDelta() throws Exception {
+        User client = utilsComponent.saveUserWithRole(CLIENT);
+        Product product = addProduct("productSoldThroughTheLedger", LOW_STOCK);
+
+        AtomicInteger acceptedOrders = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.addOrder(utilsComponent.createOrderVO(client, product));
+                    acceptedOrders.incrementAndGet();
+                } catch (NotEnoughStockException exception) {
+                    // the ledger refused the order
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        stockLedger.flushAll();
+
+        assertThat(acceptedOrders.get()).isEqualTo(LOW_STOCK);
+        assertThat(productRepository.findById(product.getId()).get().getStock()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_movement", Integer.class)).isZero();
+    }
+
+    // products added after startup reach the ledger through ProductService, like in production
+    private Product addProduct(String code, int stock) {
+        User admin = utilsComponent.saveUserWithRole(ADMIN);
+        ProductVO productVO = new ProductVO();
+        productVO.setCode(code);
+        productVO.setCurrency(RON);
+        productVO.setPrice(10);
+        productVO.setStock(stock);
+        productVO.setDescription("a product sold during a flash sale");
+        productVO.setValid(true);
+        productService.addProduct(productVO, admin.getId());
+        return productRepository.findByCode(code).get();
+    }
+}
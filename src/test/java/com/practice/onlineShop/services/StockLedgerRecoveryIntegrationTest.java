@@ -0,0 +1,48 @@
+package com.practice.onlineShop.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "online-shop.stock-ledger.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:stockLedgerRecovery"
+})
+@DirtiesContext
+class StockLedgerRecoveryIntegrationTest {
+    private static final long PRODUCT_ID = 900_001L;
+
+    /**
+     * Leaves a product with two journaled movements that were never flushed, as a crash would, before the
+     * ledger starts.
+     */
+    @TestConfiguration
+    static class UnflushedJournalConfiguration {
+        // the schema is created with the entity manager factory
+        @Bean
+        public Object unflushedJournal(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+            jdbcTemplate.update("INSERT INTO product (id, code, currency, description, price, stock, valid, version) " +
+                    "VALUES (?, 'productWithUnflushedJournal', 'RON', 'a description', 10, 10, TRUE, 0)", PRODUCT_ID);
+            jdbcTemplate.update("INSERT INTO stock_movement (product_id, quantity) VALUES (?, ?)", PRODUCT_ID, -3);
+            jdbcTemplate.update("INSERT INTO stock_movement (product_id, quantity) VALUES (?, ?)", PRODUCT_ID, -2);
+            return new Object();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void startup_whenJournalWasNotFlushedBeforeACrash_shouldReplayIt() {
+        assertThat(jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, PRODUCT_ID)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_movement", Integer.class)).isZero();
+    }
+}